@@ -0,0 +1,131 @@
+package airport;
+
+import airport.controller.PassengerController;
+import airport.controller.PlaneController;
+import airport.controller.LocationController;
+import airport.controller.FlightController;
+import airport.model.Passenger;
+import airport.model.Plane;
+import airport.model.Location;
+import airport.observer.BoardFeed;
+import airport.observer.ChangeFeed;
+import airport.operations.GatePlanner;
+import airport.operations.OnTimePerformance;
+import airport.operations.OperationalAggregates;
+import airport.storage.Repository;
+import airport.storage.PassengerRepository;
+import airport.storage.PlaneRepository;
+import airport.storage.LocationRepository;
+import airport.storage.FlightRepository;
+import airport.storage.SlotTable;
+import airport.storage.BookingIndex;
+import airport.storage.TransactionManager;
+
+/**
+ * Arma repositorios, controllers y observadores y los deja conectados.
+ * La vista recibe los controllers; los consumidores externos (exportadores,
+ * réplicas) se suscriben a {@link #getChangeFeed()} antes de cargar datos
+ * para no perderse ningún cambio.
+ */
+public class AirportContext {
+
+    private final PassengerController passengerController;
+    private final PlaneController planeController;
+    private final LocationController locationController;
+    private final FlightController flightController;
+    private final ChangeFeed changeFeed;
+
+    private AirportContext(PassengerController passengerController,
+                           PlaneController planeController,
+                           LocationController locationController,
+                           FlightController flightController,
+                           ChangeFeed changeFeed) {
+        this.passengerController = passengerController;
+        this.planeController = planeController;
+        this.locationController = locationController;
+        this.flightController = flightController;
+        this.changeFeed = changeFeed;
+    }
+
+    public static AirportContext create() {
+        Repository<Passenger, Long> passengerRepo = new PassengerRepository();
+        Repository<Plane,    String> planeRepo     = new PlaneRepository();
+        Repository<Location, String> locationRepo  = new LocationRepository();
+        FlightRepository             flightRepo    = new FlightRepository();
+
+        // Reservas y vuelos por avión, guardados por ID fuera de las entidades
+        BookingIndex bookings = new BookingIndex();
+        TransactionManager transactions = new TransactionManager();
+        // Slots por aeropuerto en franjas de una hora (sin límite hasta configurarlos)
+        SlotTable slots = new SlotTable(60);
+        // Puertas: 45 min antes de cada salida y 30 min después de cada llegada
+        GatePlanner gates = new GatePlanner(flightRepo::findById, 45, 30);
+        BoardFeed boards = new BoardFeed(flightRepo::findById);
+        OperationalAggregates aggregates =
+                new OperationalAggregates(flightRepo, passengerRepo, bookings);
+        // Un vuelo es puntual si sale con 15 minutos de retraso o menos
+        OnTimePerformance onTime = new OnTimePerformance(flightRepo, 15);
+
+        PassengerController passengerController =
+                new PassengerController(passengerRepo, bookings, transactions);
+        PlaneController planeController =
+                new PlaneController(planeRepo, bookings, transactions);
+        LocationController locationController =
+                new LocationController(locationRepo, slots, gates, aggregates);
+        FlightController flightController =
+                new FlightController(flightRepo,
+                        planeRepo,
+                        locationRepo,
+                        passengerRepo,
+                        bookings,
+                        transactions,
+                        slots,
+                        boards,
+                        aggregates,
+                        onTime);
+
+        // Feed de cambios para consumidores externos (no bloquea a los controllers)
+        ChangeFeed changeFeed = new ChangeFeed();
+        passengerController.registerObserver(changeFeed);
+        planeController.registerObserver(changeFeed);
+        locationController.registerObserver(changeFeed);
+        flightController.registerObserver(changeFeed);
+
+        // Reasigna puertas con cada vuelo creado, retrasado o retirado
+        flightController.registerObserver(gates);
+
+        // Avisos para pantallas de salidas y llegadas por aeropuerto
+        flightController.registerObserver(boards);
+
+        // Contadores de los tableros operativos, al día con cada cambio
+        passengerController.registerObserver(aggregates);
+        flightController.registerObserver(aggregates);
+
+        // Puntualidad por ruta, aeropuerto y aerolínea en ventanas deslizantes
+        flightController.registerObserver(onTime);
+
+        return new AirportContext(passengerController, planeController,
+                locationController, flightController, changeFeed);
+    }
+
+    public PassengerController getPassengerController() {
+        return passengerController;
+    }
+
+    public PlaneController getPlaneController() {
+        return planeController;
+    }
+
+    public LocationController getLocationController() {
+        return locationController;
+    }
+
+    public FlightController getFlightController() {
+        return flightController;
+    }
+
+    /** Cambios de pasajeros, aviones, localizaciones y vuelos, numerados y en orden. */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+}
@@ -0,0 +1,167 @@
+package airport.analytics;
+
+import airport.model.Flight;
+import airport.model.Location;
+import airport.model.Passenger;
+import airport.model.Plane;
+import airport.storage.BookingIndex;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia en columnas de los cuatro repositorios y de las reservas, para
+ * análisis. Cada atributo es un arreglo primitivo indexado por fila; las
+ * cadenas quedan como códigos de {@link airport.model.StringDictionary} y las
+ * referencias entre tablas como números de fila. Se construye recorriendo las
+ * vistas de los repositorios sin clonar entidades, y ocupa unos pocos bytes
+ * por atributo y fila (ver {@link #estimatedBytes()}).
+ * <p>
+ * Cada repositorio se lee de una sola instantánea; las reservas o vuelos que
+ * apuntan a entidades que ya no están en su instantánea se omiten.
+ */
+public final class ColumnarSnapshot {
+
+    // localizaciones
+    final String[] locationIds;
+    final int[] locationCountry;
+
+    // aviones
+    final int[] planeModel;
+    final int[] planeAirline;
+    final int[] planeCapacity;
+
+    // vuelos
+    final int flights;
+    final int[] flightOrigin;      // fila de localización
+    final int[] flightDestination; // fila de localización
+    final int[] flightPlane;       // fila de avión
+    final int[] flightDepartureDay;
+    final int[] flightDuration;
+    final int[] flightPassengers;
+
+    // pasajeros
+    final int[] passengerCountry;
+    final int[] passengerAge;
+    final int[] passengerFlights;
+
+    // reservas
+    final int bookings;
+    final int[] bookingFlight;    // fila de vuelo
+    final int[] bookingPassenger; // fila de pasajero
+
+    private ColumnarSnapshot(List<Location> locations, List<Plane> planes,
+                             List<Passenger> passengers, List<Flight> flightList,
+                             BookingIndex index) {
+        Map<String, Integer> locationRows = new HashMap<>();
+        locationIds = new String[locations.size()];
+        locationCountry = new int[locations.size()];
+        int row = 0;
+        for (Location l : locations) {
+            locationIds[row] = l.getAirportId();
+            locationCountry[row] = l.getAirportCountryCode();
+            locationRows.put(l.getAirportId(), row++);
+        }
+
+        Map<String, Integer> planeRows = new HashMap<>();
+        planeModel = new int[planes.size()];
+        planeAirline = new int[planes.size()];
+        planeCapacity = new int[planes.size()];
+        row = 0;
+        for (Plane p : planes) {
+            planeModel[row] = p.getModelCode();
+            planeAirline[row] = p.getAirlineCode();
+            planeCapacity[row] = p.getMaxCapacity();
+            planeRows.put(p.getId(), row++);
+        }
+
+        // the passenger view is ordered by ID, so a row is found by binary search
+        long[] passengerIds = new long[passengers.size()];
+        passengerCountry = new int[passengers.size()];
+        passengerAge = new int[passengers.size()];
+        passengerFlights = new int[passengers.size()];
+        row = 0;
+        for (Passenger p : passengers) {
+            passengerCountry[row] = p.getCountryCode();
+            passengerAge[row] = p.calculateAge();
+            if (row > 0 && p.getId() <= passengerIds[row - 1])
+                throw new IllegalArgumentException("Los pasajeros deben venir ordenados por ID");
+            passengerIds[row++] = p.getId();
+        }
+
+        int n = flightList.size();
+        int[] origin = new int[n], destination = new int[n], plane = new int[n];
+        int[] day = new int[n], duration = new int[n], booked = new int[n];
+        int[] byFlight = new int[Math.max(16, n)], byPassenger = new int[Math.max(16, n)];
+        int flightRows = 0, bookingRows = 0;
+        for (Flight f : flightList) {
+            Integer o = locationRows.get(f.getDepartureLocation().getAirportId());
+            Integer d = locationRows.get(f.getArrivalLocation().getAirportId());
+            Integer p = planeRows.get(f.getPlane().getId());
+            if (o == null || d == null || p == null) continue;
+            origin[flightRows] = o;
+            destination[flightRows] = d;
+            plane[flightRows] = p;
+            day[flightRows] = (int) Math.floorDiv(f.getDepartureMinute(), 24 * 60);
+            duration[flightRows] = (int) (f.getArrivalMinute() - f.getDepartureMinute());
+            for (long passengerId : index.passengersOf(f.getId())) {
+                int passenger = Arrays.binarySearch(passengerIds, passengerId);
+                if (passenger < 0) continue;
+                if (bookingRows == byFlight.length) {
+                    byFlight = Arrays.copyOf(byFlight, bookingRows * 2);
+                    byPassenger = Arrays.copyOf(byPassenger, bookingRows * 2);
+                }
+                byFlight[bookingRows] = flightRows;
+                byPassenger[bookingRows++] = passenger;
+                booked[flightRows]++;
+                passengerFlights[passenger]++;
+            }
+            flightRows++;
+        }
+        flights = flightRows;
+        flightOrigin = Arrays.copyOf(origin, flightRows);
+        flightDestination = Arrays.copyOf(destination, flightRows);
+        flightPlane = Arrays.copyOf(plane, flightRows);
+        flightDepartureDay = Arrays.copyOf(day, flightRows);
+        flightDuration = Arrays.copyOf(duration, flightRows);
+        flightPassengers = Arrays.copyOf(booked, flightRows);
+        bookings = bookingRows;
+        bookingFlight = Arrays.copyOf(byFlight, bookingRows);
+        bookingPassenger = Arrays.copyOf(byPassenger, bookingRows);
+    }
+
+    /**
+     * @param locations  vista de localizaciones
+     * @param planes     vista de aviones
+     * @param passengers vista de pasajeros, ordenada por ID
+     * @param flights    vista de vuelos
+     * @param bookings   reservas
+     */
+    public static ColumnarSnapshot of(List<Location> locations, List<Plane> planes,
+                                      List<Passenger> passengers, List<Flight> flights,
+                                      BookingIndex bookings) {
+        return new ColumnarSnapshot(locations, planes, passengers, flights, bookings);
+    }
+
+    /** Filas de la tabla. */
+    public int rows(Table table) {
+        switch (table) {
+            case FLIGHTS: return flights;
+            case BOOKINGS: return bookings;
+            default: return passengerCountry.length;
+        }
+    }
+
+    /**
+     * Memoria aproximada de las columnas. Al construirla se usa además, solo
+     * durante la construcción, un {@code long} por pasajero y tablas de filas
+     * para localizaciones y aviones.
+     */
+    public long estimatedBytes() {
+        return 4L * (locationCountry.length + 3L * planeModel.length + 6L * flights
+                + 3L * passengerCountry.length + 2L * bookings)
+                + 8L * locationIds.length;
+    }
+}
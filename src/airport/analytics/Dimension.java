@@ -0,0 +1,132 @@
+package airport.analytics;
+
+import airport.model.StringDictionary;
+
+import java.time.LocalDate;
+
+/**
+ * Atributo por el que se agrupa. Cada dimensión da para cada fila una clave
+ * entera (fila de localización, código del diccionario, día…) y sabe
+ * convertirla en texto. Las de vuelo sirven en {@link Table#FLIGHTS} y
+ * {@link Table#BOOKINGS}; las de pasajero, en BOOKINGS y
+ * {@link Table#PASSENGERS}.
+ */
+public enum Dimension {
+    ORIGIN(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightOrigin[flight];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return s.locationIds[key];
+        }
+    },
+    DESTINATION(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightDestination[flight];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return s.locationIds[key];
+        }
+    },
+    /** Origen y destino, p. ej. "BOG-MDE". */
+    ROUTE(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightOrigin[flight] * s.locationIds.length + s.flightDestination[flight];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            int locations = s.locationIds.length;
+            return s.locationIds[key / locations] + "-" + s.locationIds[key % locations];
+        }
+    },
+    DESTINATION_COUNTRY(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.locationCountry[s.flightDestination[flight]];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return StringDictionary.decode(key);
+        }
+    },
+    AIRLINE(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.planeAirline[s.flightPlane[flight]];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return StringDictionary.decode(key);
+        }
+    },
+    PLANE_MODEL(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.planeModel[s.flightPlane[flight]];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return StringDictionary.decode(key);
+        }
+    },
+    DEPARTURE_DAY(true) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightDepartureDay[flight];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return LocalDate.ofEpochDay(key).toString();
+        }
+    },
+    PASSENGER_COUNTRY(false) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.passengerCountry[passenger];
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return StringDictionary.decode(key);
+        }
+    },
+    /** Edad por décadas, p. ej. "30-39". */
+    AGE_BAND(false) {
+        @Override
+        int key(ColumnarSnapshot s, int flight, int passenger) {
+            return s.passengerAge[passenger] / 10;
+        }
+
+        @Override
+        String label(ColumnarSnapshot s, int key) {
+            return key * 10 + "-" + (key * 10 + 9);
+        }
+    };
+
+    private final boolean ofFlight;
+
+    Dimension(boolean ofFlight) {
+        this.ofFlight = ofFlight;
+    }
+
+    public boolean appliesTo(Table table) {
+        return table == Table.BOOKINGS || (table == Table.FLIGHTS) == ofFlight;
+    }
+
+    /** Clave de la fila, dados su vuelo y su pasajero (el que no aplica es -1). */
+    abstract int key(ColumnarSnapshot s, int flight, int passenger);
+
+    abstract String label(ColumnarSnapshot s, int key);
+}
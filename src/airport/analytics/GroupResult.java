@@ -0,0 +1,51 @@
+package airport.analytics;
+
+import java.util.List;
+
+/** Una fila del resultado: la clave del grupo y sus agregados. */
+public class GroupResult {
+
+    private final List<String> key;
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    GroupResult(List<String> key, long count, double sum, double min, double max) {
+        this.key = List.copyOf(key);
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /** Un texto por dimensión agrupada, en el orden de {@code groupBy}. */
+    public List<String> getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return key + " count=" + count + " sum=" + sum + " avg=" + getAverage();
+    }
+}
@@ -0,0 +1,111 @@
+package airport.analytics;
+
+/**
+ * Acumulador de agregados por clave {@code long}, con direccionamiento
+ * abierto y arreglos paralelos: agregar una fila no crea objetos.
+ */
+final class GroupTable {
+
+    private long[] keys;
+    private boolean[] used;
+    private long[] count;
+    private double[] sum;
+    private double[] min;
+    private double[] max;
+    private int size;
+
+    GroupTable() {
+        allocate(64);
+    }
+
+    void add(long key, double value) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            min[slot] = value;
+            max[slot] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+                slot = slotOf(key);
+            }
+        }
+        count[slot]++;
+        sum[slot] += value;
+        if (value < min[slot]) min[slot] = value;
+        if (value > max[slot]) max[slot] = value;
+    }
+
+    /** Suma a esta tabla los grupos de {@code other}. */
+    GroupTable merge(GroupTable other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (!other.used[i]) continue;
+            int slot = slotOf(other.keys[i]);
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = other.keys[i];
+                min[slot] = other.min[i];
+                max[slot] = other.max[i];
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = slotOf(other.keys[i]);
+                }
+            }
+            count[slot] += other.count[i];
+            sum[slot] += other.sum[i];
+            min[slot] = Math.min(min[slot], other.min[i]);
+            max[slot] = Math.max(max[slot], other.max[i]);
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Recorre los grupos: {@code visitor} recibe clave, cuenta, suma, mínimo y máximo. */
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) visitor.visit(keys[i], count[i], sum[i], min[i], max[i]);
+        }
+    }
+
+    interface Visitor {
+        void visit(long key, long count, double sum, double min, double max);
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (used[slot] && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldCount = count;
+        double[] oldSum = sum, oldMin = min, oldMax = max;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = slotOf(oldKeys[i]);
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            count[slot] = oldCount[i];
+            sum[slot] = oldSum[i];
+            min[slot] = oldMin[i];
+            max[slot] = oldMax[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        count = new long[capacity];
+        sum = new double[capacity];
+        min = new double[capacity];
+        max = new double[capacity];
+    }
+}
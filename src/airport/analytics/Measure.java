@@ -0,0 +1,61 @@
+package airport.analytics;
+
+/**
+ * Valor numérico que se agrega (suma, mínimo, máximo, media). Como las
+ * dimensiones, las de vuelo sirven en FLIGHTS y BOOKINGS y las de pasajero
+ * en BOOKINGS y PASSENGERS.
+ */
+public enum Measure {
+    /** Pasajeros reservados en el vuelo. */
+    PASSENGERS(true) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightPassengers[flight];
+        }
+    },
+    CAPACITY(true) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            return s.planeCapacity[s.flightPlane[flight]];
+        }
+    },
+    /** Pasajeros / capacidad del avión. */
+    LOAD_FACTOR(true) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            int capacity = s.planeCapacity[s.flightPlane[flight]];
+            return capacity == 0 ? 0 : (double) s.flightPassengers[flight] / capacity;
+        }
+    },
+    DURATION_MINUTES(true) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            return s.flightDuration[flight];
+        }
+    },
+    AGE(false) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            return s.passengerAge[passenger];
+        }
+    },
+    /** Vuelos reservados por el pasajero. */
+    FLIGHTS_BOOKED(false) {
+        @Override
+        double value(ColumnarSnapshot s, int flight, int passenger) {
+            return s.passengerFlights[passenger];
+        }
+    };
+
+    private final boolean ofFlight;
+
+    Measure(boolean ofFlight) {
+        this.ofFlight = ofFlight;
+    }
+
+    public boolean appliesTo(Table table) {
+        return table == Table.BOOKINGS || (table == Table.FLIGHTS) == ofFlight;
+    }
+
+    abstract double value(ColumnarSnapshot s, int flight, int passenger);
+}
@@ -0,0 +1,138 @@
+package airport.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Consulta de agrupación sobre un {@link ColumnarSnapshot}, p. ej. las rutas
+ * con más pasajeros:
+ * <pre>
+ * Query.from(snapshot, Table.FLIGHTS)
+ *      .groupBy(Dimension.ROUTE)
+ *      .aggregate(Measure.PASSENGERS)
+ *      .top(10);
+ * </pre>
+ * Las filas se reparten en tramos que se agregan en paralelo en el pool
+ * fork-join, cada uno en su propio acumulador primitivo, y al final se
+ * combinan. El número de tramos depende de los núcleos, no del tamaño de los
+ * datos, así que la memoria extra es la de unos pocos acumuladores de grupos
+ * y no crece con las filas.
+ */
+public class Query {
+
+    /** Como mucho dos dimensiones: sus claves se empaquetan en un {@code long}. */
+    public static final int MAX_DIMENSIONS = 2;
+    /** Límite de grupos distintos; más que esto no cabe en el presupuesto de memoria. */
+    public static final int MAX_GROUPS = 1 << 20;
+
+    private static final int MIN_ROWS_PER_CHUNK = 8192;
+
+    private final ColumnarSnapshot snapshot;
+    private final Table table;
+    private Dimension[] dimensions = new Dimension[0];
+    private Measure measure;
+
+    private Query(ColumnarSnapshot snapshot, Table table) {
+        this.snapshot = Objects.requireNonNull(snapshot);
+        this.table = Objects.requireNonNull(table);
+    }
+
+    public static Query from(ColumnarSnapshot snapshot, Table table) {
+        return new Query(snapshot, table);
+    }
+
+    /** Agrupa por hasta {@link #MAX_DIMENSIONS} dimensiones; sin ninguna hay un solo grupo. */
+    public Query groupBy(Dimension... dimensions) {
+        if (dimensions.length > MAX_DIMENSIONS)
+            throw new IllegalArgumentException("Como mucho " + MAX_DIMENSIONS + " dimensiones");
+        for (Dimension d : dimensions) {
+            if (!d.appliesTo(table))
+                throw new IllegalArgumentException(d + " no aplica a " + table);
+        }
+        this.dimensions = dimensions.clone();
+        return this;
+    }
+
+    /** Medida a agregar; sin medida solo se cuentan filas. */
+    public Query aggregate(Measure measure) {
+        if (measure != null && !measure.appliesTo(table))
+            throw new IllegalArgumentException(measure + " no aplica a " + table);
+        this.measure = measure;
+        return this;
+    }
+
+    /** Todos los grupos, ordenados por clave. */
+    public List<GroupResult> run() {
+        List<GroupResult> results = execute();
+        results.sort(Comparator.comparing(r -> String.join("\u0000", r.getKey())));
+        return results;
+    }
+
+    /** Los {@code n} grupos con mayor suma (o cuenta, si no hay medida). */
+    public List<GroupResult> top(int n) {
+        List<GroupResult> results = execute();
+        Comparator<GroupResult> order = measure == null
+                ? Comparator.comparingLong(GroupResult::getCount)
+                : Comparator.comparingDouble(GroupResult::getSum);
+        results.sort(order.reversed());
+        return new ArrayList<>(results.subList(0, Math.min(Math.max(n, 0), results.size())));
+    }
+
+    private List<GroupResult> execute() {
+        int rows = snapshot.rows(table);
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunks = Math.max(1, Math.min(rows / MIN_ROWS_PER_CHUNK, 4 * parallelism));
+        int chunkSize = (rows + chunks - 1) / chunks;
+
+        GroupTable groups = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> accumulate(c * chunkSize, Math.min(rows, (c + 1) * chunkSize)))
+                .reduce(GroupTable::merge)
+                .orElseGet(GroupTable::new);
+
+        List<GroupResult> results = new ArrayList<>(groups.size());
+        String[] labels = new String[dimensions.length];
+        groups.forEach((key, count, sum, min, max) -> {
+            for (int d = 0; d < dimensions.length; d++) {
+                int part = d == 0 && dimensions.length == 2 ? (int) (key >>> 32) : (int) key;
+                labels[d] = dimensions[d].label(snapshot, part);
+            }
+            results.add(new GroupResult(Arrays.asList(labels), count, sum, min, max));
+        });
+        return results;
+    }
+
+    private GroupTable accumulate(int from, int to) {
+        ColumnarSnapshot s = snapshot;
+        Dimension first = dimensions.length > 0 ? dimensions[0] : null;
+        Dimension second = dimensions.length > 1 ? dimensions[1] : null;
+        GroupTable groups = new GroupTable();
+        for (int row = from; row < to; row++) {
+            int flight, passenger;
+            switch (table) {
+                case FLIGHTS:
+                    flight = row;
+                    passenger = -1;
+                    break;
+                case BOOKINGS:
+                    flight = s.bookingFlight[row];
+                    passenger = s.bookingPassenger[row];
+                    break;
+                default:
+                    flight = -1;
+                    passenger = row;
+            }
+            long key = 0;
+            if (first != null) key = first.key(s, flight, passenger) & 0xFFFFFFFFL;
+            if (second != null) key = (key << 32) | (second.key(s, flight, passenger) & 0xFFFFFFFFL);
+            groups.add(key, measure == null ? 0 : measure.value(s, flight, passenger));
+            if (groups.size() > MAX_GROUPS)
+                throw new IllegalStateException("La consulta supera " + MAX_GROUPS + " grupos");
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,11 @@
+package airport.analytics;
+
+/** Tabla de hechos sobre la que corre una consulta. */
+public enum Table {
+    /** Una fila por vuelo. */
+    FLIGHTS,
+    /** Una fila por reserva (vuelo, pasajero). */
+    BOOKINGS,
+    /** Una fila por pasajero. */
+    PASSENGERS
+}
@@ -1,40 +1,88 @@
 package airport.controller;
 
+import airport.analytics.ColumnarSnapshot;
 import airport.model.Flight;
 import airport.model.Plane;
 import airport.model.Location;
 import airport.model.Passenger;
+import airport.observer.BoardFeed;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
 import airport.observer.Observer;
 import airport.observer.Subject;
+import airport.operations.AggregateSnapshot;
+import airport.operations.OnTimePerformance;
+import airport.operations.OnTimeStats;
+import airport.operations.OperationalAggregates;
+import airport.operations.Reaccommodation;
+import airport.operations.ReaccommodationSolver;
+import airport.operations.TimeWindow;
 import airport.response.Response;
+import airport.simulation.Scenario;
+import airport.simulation.SimulationReport;
+import airport.simulation.Simulator;
 import airport.response.StatusCode;
+import airport.storage.BookingIndex;
+import airport.storage.FlightRepository;
 import airport.storage.Repository;
+import airport.storage.SlotTable;
+import airport.storage.Transaction;
+import airport.storage.TransactionManager;
 
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class FlightController implements Subject {
     private static final Pattern ID_PATTERN = Pattern.compile("^[A-Z]{3}\\d{3}$");
+    /** Veces que cancelFlight vuelve a bloquear si el manifiesto crece entretanto. */
+    private static final int CANCEL_ATTEMPTS = 3;
 
-    private final Repository<Flight, String>   flightRepo;
+    private final FlightRepository             flightRepo;
     private final Repository<Plane, String>    planeRepo;
     private final Repository<Location, String> locationRepo;
     private final Repository<Passenger, Long>  passengerRepo;
+    private final BookingIndex bookings;
+    private final TransactionManager transactions;
+    private final SlotTable slots;
+    private final BoardFeed boards;
+    private final OperationalAggregates aggregates;
+    private final OnTimePerformance onTime;
+    private final ReaccommodationSolver solver = new ReaccommodationSolver();
     private final List<Observer> observers;
 
-    public FlightController(Repository<Flight, String> flightRepo,
+    public FlightController(FlightRepository flightRepo,
                             Repository<Plane, String> planeRepo,
                             Repository<Location, String> locationRepo,
-                            Repository<Passenger, Long> passengerRepo) {
+                            Repository<Passenger, Long> passengerRepo,
+                            BookingIndex bookings,
+                            TransactionManager transactions,
+                            SlotTable slots,
+                            BoardFeed boards,
+                            OperationalAggregates aggregates,
+                            OnTimePerformance onTime) {
         this.flightRepo    = flightRepo;
         this.planeRepo     = planeRepo;
         this.locationRepo  = locationRepo;
         this.passengerRepo = passengerRepo;
+        this.bookings      = bookings;
+        this.transactions  = transactions;
+        this.slots         = slots;
+        this.boards        = boards;
+        this.aggregates    = aggregates;
+        this.onTime        = onTime;
         this.observers = new ArrayList<>();
     }
 
@@ -57,6 +105,13 @@ public class FlightController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Flight> createFlight(String id,
                                          String planeId,
                                          String departureLocId,
@@ -109,6 +164,10 @@ public class FlightController implements Subject {
         if (scaleDurHour < 0 || scaleDurMinute < 0 || scaleDurMinute > 59)
             return Response.of(StatusCode.BAD_REQUEST,
                     "Duración de escala inválida");
+        if ((long) arrDurHour * 60 + arrDurMinute > Flight.MAX_DURATION_MINUTES
+                || (long) scaleDurHour * 60 + scaleDurMinute > Flight.MAX_DURATION_MINUTES)
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La duración no puede superar " + Flight.MAX_DURATION_MINUTES / 60 + " horas");
 
         LocalDateTime departureDate;
         try {
@@ -125,160 +184,589 @@ public class FlightController implements Subject {
                 : new Flight(id, plane, depLoc, arrLoc,
                 departureDate, arrDurHour, arrDurMinute);
 
-        Flight saved = flightRepo.save(toSave);
-        Flight clone = hasScale
-                ? new Flight(saved.getId(), saved.getPlane(),
-                saved.getDepartureLocation(),
-                saved.getScaleLocation(),
-                saved.getArrivalLocation(),
-                saved.getDepartureDate(),
-                saved.getHoursDurationArrival(),
-                saved.getMinutesDurationArrival(),
-                saved.getHoursDurationScale(),
-                saved.getMinutesDurationScale())
-                : new Flight(saved.getId(), saved.getPlane(),
-                saved.getDepartureLocation(),
-                saved.getArrivalLocation(),
-                saved.getDepartureDate(),
-                saved.getHoursDurationArrival(),
-                saved.getMinutesDurationArrival());
-        notifyObservers("flight"); // Notify observers
+        try (Transaction tx = transactions.begin(
+                TransactionManager.key("flight", id), TransactionManager.key("plane", plane.getId()))) {
+            // Re-check under the lock: another thread may have created the same ID
+            if (flightRepo.findById(id).isPresent())
+                return Response.of(StatusCode.CONFLICT,
+                        "Ya existe un vuelo con ID=" + id);
+            // The plane may have been retired between the first read and the lock
+            if (planeRepo.findById(plane.getId()).isEmpty())
+                return Response.of(StatusCode.NOT_FOUND,
+                        "No existe avión con ID=" + planeId);
+            if (!slots.reserve(toSave))
+                return Response.of(StatusCode.CONFLICT,
+                        "No hay slot libre en " + departureLocId + " o " + arrivalLocId + " para ese horario");
+            tx.onRollback(() -> slots.release(toSave));
+            tx.save(flightRepo, toSave);
+            tx.onCommit(() -> bookings.addFlight(id, plane.getId()), () -> bookings.removeFlight(id));
+            tx.commit();
+        }
+        Flight clone = copyOf(toSave);
+        notifyObservers(ChangeEvent.of("flight", ChangeType.CREATED, toSave.getId()));
+        notifyObservers(ChangeEvent.of("plane", ChangeType.UPDATED, plane.getId()));
         return Response.of(StatusCode.CREATED,
                 "Vuelo creado exitosamente", clone);
     }
 
     public Response<List<Flight>> getAllFlights() {
         List<Flight> originals = flightRepo.findAll();
-        List<Flight> clones = originals.stream().map(f ->
-                        f.getScaleLocation() == null
-                                ? new Flight(f.getId(), f.getPlane(),
-                                f.getDepartureLocation(),
-                                f.getArrivalLocation(),
-                                f.getDepartureDate(),
-                                f.getHoursDurationArrival(),
-                                f.getMinutesDurationArrival())
-                                : new Flight(f.getId(), f.getPlane(),
-                                f.getDepartureLocation(),
-                                f.getScaleLocation(),
-                                f.getArrivalLocation(),
-                                f.getDepartureDate(),
-                                f.getHoursDurationArrival(),
-                                f.getMinutesDurationArrival(),
-                                f.getHoursDurationScale(),
-                                f.getMinutesDurationScale()))
+        List<Flight> clones = originals.stream().map(this::copyOf)
                 .collect(Collectors.toList());
         return Response.of(StatusCode.OK, "Listado de vuelos", clones);
     }
 
-    public Response<List<Flight>> getFlightsByPassenger(long passengerId) {
-        Optional<Passenger> optP = passengerRepo.findById(passengerId);
-        if (optP.isEmpty())
+    public Response<Flight> getFlight(String flightId) {
+        Optional<Flight> optF = flightRepo.findById(flightId);
+        if (optF.isEmpty())
             return Response.of(StatusCode.NOT_FOUND,
-                    "No existe pasajero con ID=" + passengerId);
-        List<Flight> sorted = optP.get().getFlights().stream()
-                .sorted((a, b) -> a.getDepartureDate()
-                        .compareTo(b.getDepartureDate()))
+                    "No existe vuelo con ID=" + flightId);
+        return Response.of(StatusCode.OK, "Vuelo encontrado", copyOf(optF.get()));
+    }
+
+    /**
+     * Vista perezosa de todos los vuelos, ordenados por salida: no copia la
+     * lista y clona cada vuelo solo cuando se lee su posición.
+     */
+    public Response<List<Flight>> getFlightsView() {
+        List<Flight> view = flightRepo.view();
+        List<Flight> clones = new AbstractList<>() {
+            @Override
+            public Flight get(int index) {
+                return copyOf(view.get(index));
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+        };
+        return Response.of(StatusCode.OK, "Listado de vuelos", clones);
+    }
+
+    /** IDs de todos los vuelos en orden de salida, sin clonar cada vuelo (para combos). */
+    public Response<List<String>> getFlightIds() {
+        List<Flight> view = flightRepo.view();
+        List<String> ids = new ArrayList<>(view.size());
+        for (Flight f : view) {
+            ids.add(f.getId());
+        }
+        return Response.of(StatusCode.OK, "IDs de vuelos", ids);
+    }
+
+    /**
+     * Tablero de salidas: como mucho {@code limit} vuelos que salen de
+     * {@code locationId} entre {@code from} y {@code to}, en orden de salida.
+     * Usa el índice por aeropuerto: O(log n + limit).
+     */
+    public Response<List<Flight>> getDepartureBoard(String locationId,
+                                                    LocalDateTime from,
+                                                    LocalDateTime to,
+                                                    int limit) {
+        Response<List<Flight>> invalid = checkBoard(locationId, from, to, limit);
+        if (invalid != null) return invalid;
+        List<Flight> clones = flightRepo.findDepartures(locationId, toEpochMinute(from),
+                        toEpochMinute(to), limit).stream()
+                .map(this::copyOf)
                 .collect(Collectors.toList());
-        List<Flight> clones = sorted.stream().map(f ->
-                        f.getScaleLocation() == null
-                                ? new Flight(f.getId(), f.getPlane(),
-                                f.getDepartureLocation(),
-                                f.getArrivalLocation(),
-                                f.getDepartureDate(),
-                                f.getHoursDurationArrival(),
-                                f.getMinutesDurationArrival())
-                                : new Flight(f.getId(), f.getPlane(),
-                                f.getDepartureLocation(),
-                                f.getScaleLocation(),
-                                f.getArrivalLocation(),
-                                f.getDepartureDate(),
-                                f.getHoursDurationArrival(),
-                                f.getMinutesDurationArrival(),
-                                f.getHoursDurationScale(),
-                                f.getMinutesDurationScale()))
+        return Response.of(StatusCode.OK, "Salidas de " + locationId, clones);
+    }
+
+    /** Tablero de llegadas: como el de salidas, por hora de llegada. */
+    public Response<List<Flight>> getArrivalBoard(String locationId,
+                                                  LocalDateTime from,
+                                                  LocalDateTime to,
+                                                  int limit) {
+        Response<List<Flight>> invalid = checkBoard(locationId, from, to, limit);
+        if (invalid != null) return invalid;
+        List<Flight> clones = flightRepo.findArrivals(locationId, toEpochMinute(from),
+                        toEpochMinute(to), limit).stream()
+                .map(this::copyOf)
                 .collect(Collectors.toList());
-        return Response.of(StatusCode.OK, "Vuelos del pasajero", clones);
+        return Response.of(StatusCode.OK, "Llegadas a " + locationId, clones);
     }
 
-    public Response<Flight> addPassengerToFlight(String flightId, long passengerId) {
-        Optional<Flight> optF = flightRepo.findById(flightId);
-        if (optF.isEmpty())
+    /**
+     * Avisa a {@code listener} de cada vuelo creado, retrasado o retirado en
+     * los tableros de {@code locationId}, para refrescar la pantalla sin
+     * consultar periódicamente. Los avisos llegan en el hilo de {@link BoardFeed}.
+     */
+    public Response<Void> subscribeBoard(String locationId, BoardFeed.Listener listener) {
+        if (listener == null)
+            return Response.of(StatusCode.BAD_REQUEST, "Falta quién reciba los avisos");
+        if (locationRepo.findById(locationId).isEmpty())
             return Response.of(StatusCode.NOT_FOUND,
-                    "No existe vuelo con ID=" + flightId);
+                    "No existe localización ID=" + locationId);
+        boards.subscribe(locationId, listener);
+        return Response.of(StatusCode.OK, "Suscrito al tablero de " + locationId);
+    }
+
+    public Response<Void> unsubscribeBoard(String locationId, BoardFeed.Listener listener) {
+        boards.unsubscribe(locationId, listener);
+        return Response.of(StatusCode.OK, "Suscripción al tablero de " + locationId + " cancelada");
+    }
+
+    private Response<List<Flight>> checkBoard(String locationId, LocalDateTime from,
+                                              LocalDateTime to, int limit) {
+        if (locationRepo.findById(locationId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización ID=" + locationId);
+        if (from == null || to == null || from.isAfter(to))
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Rango de fechas inválido");
+        if (limit <= 0)
+            return Response.of(StatusCode.BAD_REQUEST, "El límite debe ser mayor que 0");
+        return null;
+    }
+
+    public Response<List<Flight>> getFlightsByPassenger(long passengerId) {
         Optional<Passenger> optP = passengerRepo.findById(passengerId);
         if (optP.isEmpty())
             return Response.of(StatusCode.NOT_FOUND,
                     "No existe pasajero con ID=" + passengerId);
-        Flight f = optF.get(), clone;
-        Passenger p = optP.get();
+        // Resolve the booked flight ids only now that they are requested
+        List<Flight> clones = bookings.flightsOf(passengerId).stream()
+                .map(flightRepo::findById)
+                .flatMap(Optional::stream)
+                .sorted(Comparator.comparingLong(Flight::getDepartureMinute))
+                .map(this::copyOf)
+                .collect(Collectors.toList());
+        return Response.of(StatusCode.OK, "Vuelos del pasajero", clones);
+    }
 
-        // Check if plane has capacity
-        if (f.getNumPassengers() >= f.getPlane().getMaxCapacity()) {
-            return Response.of(StatusCode.CONFLICT,
-                    "El vuelo ha alcanzado su capacidad máxima de pasajeros.");
+    public Response<List<Passenger>> getPassengersByFlight(String flightId) {
+        if (flightRepo.findById(flightId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe vuelo con ID=" + flightId);
+        List<Passenger> clones = new ArrayList<>();
+        for (long id : bookings.passengersOf(flightId)) {
+            passengerRepo.findById(id).ifPresent(p ->
+                    clones.add(new Passenger(p, bookings.countFlights(id))));
         }
+        return Response.of(StatusCode.OK, "Pasajeros del vuelo", clones);
+    }
 
-        // Check if passenger is already in flight
-        // Note: This requires Flight model to have a list of passengers and a way to check them.
-        // Assuming Flight class has a method like `hasPassenger(Passenger p)`
-        /*
-        if (f.hasPassenger(p)) { // This method needs to be implemented in Flight.java
-            return Response.of(StatusCode.CONFLICT,
-                    "El pasajero ya está registrado en este vuelo.");
+    public Response<Flight> addPassengerToFlight(String flightId, long passengerId) {
+        Flight f, clone;
+        Passenger p;
+        try (Transaction tx = transactions.begin(
+                TransactionManager.key("flight", flightId), TransactionManager.key("passenger", passengerId))) {
+            Optional<Flight> optF = flightRepo.findById(flightId);
+            if (optF.isEmpty())
+                return Response.of(StatusCode.NOT_FOUND,
+                        "No existe vuelo con ID=" + flightId);
+            Optional<Passenger> optP = passengerRepo.findById(passengerId);
+            if (optP.isEmpty())
+                return Response.of(StatusCode.NOT_FOUND,
+                        "No existe pasajero con ID=" + passengerId);
+            f = optF.get();
+            p = optP.get();
+
+            // Check if plane has capacity
+            if (bookings.countPassengers(flightId) >= f.getPlane().getMaxCapacity())
+                return Response.of(StatusCode.CONFLICT,
+                        "El vuelo ha alcanzado su capacidad máxima de pasajeros.");
+            // Check if passenger is already in flight
+            if (bookings.isBooked(flightId, passengerId))
+                return Response.of(StatusCode.CONFLICT,
+                        "El pasajero ya está registrado en este vuelo.");
+
+            int capacity = f.getPlane().getMaxCapacity();
+            tx.onCommit(() -> bookings.book(flightId, passengerId, capacity));
+            tx.commit();
         }
-        */
-
-
-        f.addPassenger(p);
-        p.addFlight(f);
-        flightRepo.update(f); // Persist changes to flight (e.g., updated passenger list)
-        // passengerRepo.update(p); // Persist changes to passenger (e.g., updated flight list)
-
-        clone = new Flight(f.getId(), f.getPlane(),
-                f.getDepartureLocation(),
-                f.getArrivalLocation(),
-                f.getDepartureDate(),
-                f.getHoursDurationArrival(),
-                f.getMinutesDurationArrival());
-        // It might be more appropriate to also notify for "passenger" changes if their flight list is critical for some views
-        notifyObservers("flight");
-        notifyObservers("passenger"); // If passenger's flight count shown in passenger table
+
+        clone = copyOf(f);
+        notifyObservers(ChangeEvent.of("flight", ChangeType.MANIFEST_CHANGED, f.getId()));
+        notifyObservers(ChangeEvent.of("passenger", ChangeType.MANIFEST_CHANGED, String.valueOf(p.getId())));
         return Response.of(StatusCode.OK, "Pasajero agregado al vuelo", clone);
     }
 
     public Response<Flight> delayFlight(String flightId,
                                         int delayHours,
                                         int delayMinutes) {
-        Optional<Flight> optF = flightRepo.findById(flightId);
-        if (optF.isEmpty())
-            return Response.of(StatusCode.NOT_FOUND,
-                    "No existe vuelo con ID=" + flightId);
         if (delayHours < 0 || delayMinutes < 0
                 || (delayHours == 0 && delayMinutes == 0)
                 || delayMinutes > 59)
             return Response.of(StatusCode.BAD_REQUEST,
                     "Tiempo de retraso inválido");
-        Flight f = optF.get(), clone;
-        f.delay(delayHours, delayMinutes);
-        flightRepo.update(f);
-        clone = f.getScaleLocation() == null
-                ? new Flight(f.getId(), f.getPlane(),
-                f.getDepartureLocation(),
-                f.getArrivalLocation(),
-                f.getDepartureDate(),
-                f.getHoursDurationArrival(),
-                f.getMinutesDurationArrival())
-                : new Flight(f.getId(), f.getPlane(),
-                f.getDepartureLocation(),
-                f.getScaleLocation(),
-                f.getArrivalLocation(),
-                f.getDepartureDate(),
-                f.getHoursDurationArrival(),
-                f.getMinutesDurationArrival(),
-                f.getHoursDurationScale(),
-                f.getMinutesDurationScale());
-        notifyObservers("flight"); // Notify observers
+        Flight f, clone;
+        try (Transaction tx = transactions.begin(TransactionManager.key("flight", flightId))) {
+            Optional<Flight> optF = flightRepo.findById(flightId);
+            if (optF.isEmpty())
+                return Response.of(StatusCode.NOT_FOUND,
+                        "No existe vuelo con ID=" + flightId);
+            // Publish a delayed copy; the stored version stays intact for readers
+            f = new Flight(optF.get(), 0);
+            f.delay(delayHours, delayMinutes);
+            if (!slots.move(optF.get(), f))
+                return Response.of(StatusCode.CONFLICT,
+                        "No hay slot libre para el nuevo horario del vuelo");
+            Flight previous = optF.get();
+            tx.onRollback(() -> slots.move(f, previous));
+            tx.update(flightRepo, f);
+            tx.commit();
+        }
+        clone = copyOf(f);
+        notifyObservers(ChangeEvent.of("flight", ChangeType.DELAYED, f.getId()));
         return Response.of(StatusCode.OK, "Vuelo retrasado exitosamente", clone);
     }
-}
 
+    /**
+     * Retrasa de una vez todos los vuelos que salen de {@code locationId}
+     * entre {@code from} y {@code to} (inclusive), p. ej. por cierre del
+     * aeropuerto. Los vuelos se buscan en el índice por salida, se publican en
+     * una sola versión del repositorio y se avisa con un único evento.
+     */
+    public Response<List<Flight>> delayFlights(String locationId,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               int delayHours,
+                                               int delayMinutes) {
+        if (delayHours < 0 || delayMinutes < 0
+                || (delayHours == 0 && delayMinutes == 0)
+                || delayMinutes > 59)
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Tiempo de retraso inválido");
+        if (from == null || to == null || from.isAfter(to))
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Rango de fechas inválido");
+        if (locationRepo.findById(locationId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización ID=" + locationId);
+        long fromMinute = toEpochMinute(from);
+        long toMinute = toEpochMinute(to);
+
+        Set<String> locked = new HashSet<>();
+        for (Flight f : flightRepo.findDepartures(locationId, fromMinute, toMinute)) {
+            locked.add(f.getId());
+        }
+        if (locked.isEmpty())
+            return Response.of(StatusCode.OK, "No hay vuelos que retrasar", new ArrayList<>());
+        String[] keys = locked.stream()
+                .map(id -> TransactionManager.key("flight", id))
+                .toArray(String[]::new);
+
+        List<Flight> delayed = new ArrayList<>();
+        try (Transaction tx = transactions.begin(keys)) {
+            // Re-read under the locks; flights that appeared meanwhile were not locked
+            List<Flight> originals = new ArrayList<>();
+            for (Flight f : flightRepo.findDepartures(locationId, fromMinute, toMinute)) {
+                if (!locked.contains(f.getId())) continue;
+                Flight copy = new Flight(f, 0);
+                copy.delay(delayHours, delayMinutes);
+                originals.add(f);
+                delayed.add(copy);
+            }
+            if (!slots.moveAll(originals, delayed))
+                return Response.of(StatusCode.CONFLICT,
+                        "No hay slots libres para todos los vuelos retrasados");
+            tx.onRollback(() -> slots.moveAll(delayed, originals));
+            tx.onCommit(() -> flightRepo.updateAll(delayed),
+                    () -> originals.forEach(o -> flightRepo.restore(o.getId(), o)));
+            tx.commit();
+        }
+        List<Flight> clones = new ArrayList<>(delayed.size());
+        List<String> ids = new ArrayList<>(delayed.size());
+        for (Flight f : delayed) {
+            clones.add(copyOf(f));
+            ids.add(f.getId());
+        }
+        notifyObservers(ChangeEvent.of("flight", ChangeType.DELAYED, ids));
+        return Response.of(StatusCode.OK,
+                delayed.size() + " vuelos retrasados exitosamente", clones);
+    }
+
+    /**
+     * Primera hora de salida, desde {@code earliest}, con slot libre para salir
+     * de {@code departureLocId} y llegar a {@code arrivalLocId} tras la
+     * duración indicada. Salta franjas llenas sin recorrer el horario.
+     */
+    public Response<LocalDateTime> findNextFreeSlot(String departureLocId,
+                                                    String arrivalLocId,
+                                                    LocalDateTime earliest,
+                                                    int durationHours,
+                                                    int durationMinutes) {
+        if (locationRepo.findById(departureLocId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización de salida ID=" + departureLocId);
+        if (locationRepo.findById(arrivalLocId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización de llegada ID=" + arrivalLocId);
+        if (earliest == null)
+            return Response.of(StatusCode.BAD_REQUEST, "Fecha de salida inválida");
+        if (durationHours < 0 || durationMinutes < 0 || durationMinutes > 59
+                || (long) durationHours * 60 + durationMinutes > Flight.MAX_DURATION_MINUTES)
+            return Response.of(StatusCode.BAD_REQUEST, "Duración de vuelo inválida");
+        long minute = slots.nextFree(departureLocId, arrivalLocId,
+                toEpochMinute(earliest),
+                durationHours * 60 + durationMinutes);
+        if (minute == SlotTable.NONE)
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No hay slots libres en el próximo año");
+        return Response.of(StatusCode.OK, "Siguiente slot libre",
+                LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC));
+    }
+
+    /** Pasajeros reservados en todos los vuelos de la ruta. O(1). */
+    public Response<Long> getPassengersOnRoute(String fromId, String toId) {
+        if (locationRepo.findById(fromId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe localización ID=" + fromId);
+        if (locationRepo.findById(toId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe localización ID=" + toId);
+        return Response.of(StatusCode.OK, "Pasajeros en la ruta " + fromId + "-" + toId,
+                aggregates.getPassengersOnRoute(fromId, toId));
+    }
+
+    /** Asientos reservados / ofrecidos en los vuelos de la aerolínea. O(1). */
+    public Response<Double> getLoadFactor(String airline) {
+        if (airline == null || airline.isBlank())
+            return Response.of(StatusCode.BAD_REQUEST, "La aerolínea es obligatoria");
+        return Response.of(StatusCode.OK, "Ocupación de " + airline,
+                aggregates.getLoadFactor(airline));
+    }
+
+    /** Reservas de los pasajeros del país. O(1). */
+    public Response<Long> getBookingsByCountry(String country) {
+        if (country == null || country.isBlank())
+            return Response.of(StatusCode.BAD_REQUEST, "El país es obligatorio");
+        return Response.of(StatusCode.OK, "Reservas de pasajeros de " + country,
+                aggregates.getBookingsByCountry(country));
+    }
+
+    /** Todos los contadores operativos en un mismo instante, para un tablero. */
+    public Response<AggregateSnapshot> getOperationalSnapshot() {
+        return Response.of(StatusCode.OK, "Agregados operativos", aggregates.snapshot());
+    }
+
+    /** Puntualidad de las salidas de la ruta en la ventana. O(1). */
+    public Response<OnTimeStats> getRouteOnTime(String fromId, String toId, TimeWindow window) {
+        if (locationRepo.findById(fromId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe localización ID=" + fromId);
+        if (locationRepo.findById(toId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe localización ID=" + toId);
+        if (window == null)
+            return Response.of(StatusCode.BAD_REQUEST, "La ventana es obligatoria");
+        return Response.of(StatusCode.OK, "Puntualidad de la ruta " + fromId + "-" + toId,
+                onTime.getRouteStats(fromId, toId, window));
+    }
+
+    /** Puntualidad de las salidas del aeropuerto en la ventana. O(1). */
+    public Response<OnTimeStats> getAirportOnTime(String airportId, TimeWindow window) {
+        if (locationRepo.findById(airportId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe localización ID=" + airportId);
+        if (window == null)
+            return Response.of(StatusCode.BAD_REQUEST, "La ventana es obligatoria");
+        return Response.of(StatusCode.OK, "Puntualidad de " + airportId,
+                onTime.getAirportStats(airportId, window));
+    }
+
+    /** Puntualidad de las salidas de la aerolínea en la ventana. O(1). */
+    public Response<OnTimeStats> getAirlineOnTime(String airline, TimeWindow window) {
+        if (airline == null || airline.isBlank())
+            return Response.of(StatusCode.BAD_REQUEST, "La aerolínea es obligatoria");
+        if (window == null)
+            return Response.of(StatusCode.BAD_REQUEST, "La ventana es obligatoria");
+        return Response.of(StatusCode.OK, "Puntualidad de " + airline,
+                onTime.getAirlineStats(airline, window));
+    }
+
+    /**
+     * Instantánea en columnas de localizaciones, aviones, pasajeros, vuelos y
+     * reservas para consultas de análisis ({@link airport.analytics.Query}).
+     * Lee las vistas de los repositorios sin clonar entidades.
+     */
+    public Response<ColumnarSnapshot> getAnalyticsSnapshot() {
+        ColumnarSnapshot snapshot = ColumnarSnapshot.of(locationRepo.view(), planeRepo.view(),
+                passengerRepo.view(), flightRepo.view(), bookings);
+        return Response.of(StatusCode.OK, "Instantánea para análisis", snapshot);
+    }
+
+    /**
+     * Simula {@code runs} veces los vuelos que salen entre {@code from} y
+     * {@code to} bajo el escenario dado, en paralelo, sobre una instantánea
+     * del horario y las reservas. No modifica nada.
+     */
+    public Response<SimulationReport> simulate(LocalDateTime from,
+                                               LocalDateTime to,
+                                               Scenario scenario,
+                                               int runs,
+                                               long seed) {
+        if (from == null || to == null || from.isAfter(to))
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Rango de fechas inválido");
+        if (scenario == null)
+            return Response.of(StatusCode.BAD_REQUEST, "El escenario es obligatorio");
+        if (runs <= 0)
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El número de corridas debe ser mayor que 0");
+        long fromMinute = toEpochMinute(from);
+        long toMinute = toEpochMinute(to);
+        List<Flight> window = flightRepo.findDepartures(fromMinute, toMinute);
+        SimulationReport report = new Simulator(window, bookings::passengersOf)
+                .run(scenario, runs, seed);
+        return Response.of(StatusCode.OK, report.toString(), report);
+    }
+
+    /**
+     * Borra el vuelo: lo quita del repositorio, de su avión y del manifiesto
+     * de cada pasajero. Devuelve la última versión del vuelo borrado.
+     */
+    public Response<Flight> deleteFlight(String flightId) {
+        Optional<Flight> optF = flightRepo.findById(flightId);
+        if (optF.isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe vuelo con ID=" + flightId);
+        String planeId = optF.get().getPlane().getId();
+        Flight f, clone;
+        long[][] unbooked = new long[1][];
+        try (Transaction tx = transactions.begin(
+                TransactionManager.key("flight", flightId), TransactionManager.key("plane", planeId))) {
+            Optional<Flight> current = flightRepo.findById(flightId);
+            if (current.isEmpty())
+                return Response.of(StatusCode.NOT_FOUND,
+                        "No existe vuelo con ID=" + flightId);
+            f = current.get();
+            clone = copyOf(f);
+            tx.delete(flightRepo, flightId);
+            tx.onCommit(() -> slots.release(f), () -> slots.reserve(f));
+            tx.onCommit(() -> unbooked[0] = bookings.removeFlight(flightId));
+            tx.commit();
+        }
+        notifyObservers(ChangeEvent.of("flight", ChangeType.DELETED, flightId));
+        notifyObservers(ChangeEvent.of("plane", ChangeType.UPDATED, planeId));
+        if (unbooked[0].length > 0) {
+            List<String> ids = new ArrayList<>(unbooked[0].length);
+            for (long id : unbooked[0]) ids.add(String.valueOf(id));
+            notifyObservers(ChangeEvent.of("passenger", ChangeType.MANIFEST_CHANGED, ids));
+        }
+        return Response.of(StatusCode.OK, "Vuelo eliminado exitosamente", clone);
+    }
+
+    /**
+     * Cancela el vuelo y reubica a sus pasajeros en vuelos posteriores con el
+     * mismo origen y destino que tengan asientos libres. La búsqueda corre en
+     * paralelo y las reservas nuevas se aplican juntas, en la misma
+     * transacción que retira el vuelo cancelado.
+     */
+    public Response<Reaccommodation> cancelFlight(String flightId) {
+        Optional<Flight> optF = flightRepo.findById(flightId);
+        if (optF.isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe vuelo con ID=" + flightId);
+        Flight cancelled = optF.get();
+        String from = cancelled.getDepartureLocation().getAirportId();
+        String to = cancelled.getArrivalLocation().getAirportId();
+
+        // Misma ruta y salida posterior: el índice por origen da solo las salidas de ese aeropuerto
+        List<Flight> alternatives = new ArrayList<>();
+        for (Flight c : flightRepo.findDepartures(from, cancelled.getDepartureMinute() + 1, Long.MAX_VALUE)) {
+            if (c.getArrivalLocation().getAirportId().equals(to)) alternatives.add(c);
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(TransactionManager.key("flight", flightId));
+        keys.add(TransactionManager.key("plane", cancelled.getPlane().getId()));
+        for (Flight alt : alternatives) keys.add(TransactionManager.key("flight", alt.getId()));
+        for (long pid : bookings.passengersOf(flightId)) keys.add(TransactionManager.key("passenger", pid));
+
+        Reaccommodation result = null;
+        for (int attempt = 0; result == null; attempt++) {
+            if (attempt == CANCEL_ATTEMPTS)
+                return Response.of(StatusCode.CONFLICT,
+                        "El vuelo recibió reservas mientras se cancelaba; intente de nuevo");
+            try (Transaction tx = transactions.begin(keys.toArray(new String[0]))) {
+                Optional<Flight> stored = flightRepo.findById(flightId);
+                if (stored.isEmpty())
+                    return Response.of(StatusCode.NOT_FOUND,
+                            "No existe vuelo con ID=" + flightId);
+                long[] manifest = bookings.passengersOf(flightId);
+                // Passengers booked after the keys were chosen are not locked: retry with them
+                boolean unlocked = false;
+                for (long pid : manifest) {
+                    if (keys.add(TransactionManager.key("passenger", pid))) unlocked = true;
+                }
+                if (unlocked) continue;
+                result = rebook(tx, stored.get(), manifest, alternatives);
+            }
+        }
+
+        notifyObservers(ChangeEvent.of("flight", ChangeType.CANCELLED, flightId));
+        notifyObservers(ChangeEvent.of("plane", ChangeType.UPDATED, cancelled.getPlane().getId()));
+        if (!result.getRebooked().isEmpty()) {
+            notifyObservers(ChangeEvent.of("flight", ChangeType.MANIFEST_CHANGED,
+                    new LinkedHashSet<>(result.getRebooked().values())));
+        }
+        List<String> affected = new ArrayList<>();
+        result.getRebooked().keySet().forEach(pid -> affected.add(String.valueOf(pid)));
+        result.getUnaccommodated().forEach(pid -> affected.add(String.valueOf(pid)));
+        if (!affected.isEmpty()) {
+            notifyObservers(ChangeEvent.of("passenger", ChangeType.MANIFEST_CHANGED, affected));
+        }
+        return Response.of(StatusCode.OK,
+                "Vuelo cancelado: " + result.getRebooked().size() + " pasajeros reubicados, "
+                        + result.getUnaccommodated().size() + " sin reubicar",
+                result);
+    }
+
+    /**
+     * Reparte el manifiesto entre las alternativas y confirma la cancelación
+     * dentro de {@code tx}, que ya bloquea el vuelo, las alternativas y a
+     * todos los pasajeros del manifiesto. Quien no obtuvo plaza al aplicar las
+     * reservas pasa a los no reubicados.
+     */
+    private Reaccommodation rebook(Transaction tx, Flight cancelled, long[] manifest,
+                                   List<Flight> alternatives) {
+        String flightId = cancelled.getId();
+        List<ReaccommodationSolver.Option> options = new ArrayList<>();
+        for (Flight alt : alternatives) {
+            Optional<Flight> current = flightRepo.findById(alt.getId());
+            if (current.isEmpty()) continue;
+            Set<Long> booked = new HashSet<>();
+            for (long pid : bookings.passengersOf(alt.getId())) booked.add(pid);
+            int free = current.get().getPlane().getMaxCapacity() - bookings.countPassengers(alt.getId());
+            options.add(new ReaccommodationSolver.Option(alt.getId(), free, booked));
+        }
+        Reaccommodation planned = solver.solve(flightId, manifest, options);
+
+        int n = planned.getRebooked().size(), i = 0;
+        String[] flightIds = new String[n];
+        long[] passengerIds = new long[n];
+        int[] capacities = new int[n];
+        for (Map.Entry<Long, String> e : planned.getRebooked().entrySet()) {
+            passengerIds[i] = e.getKey();
+            flightIds[i] = e.getValue();
+            capacities[i] = flightRepo.findById(e.getValue()).get().getPlane().getMaxCapacity();
+            i++;
+        }
+        BookingIndex.Outcome[][] outcomes = new BookingIndex.Outcome[1][];
+        tx.delete(flightRepo, flightId);
+        tx.onCommit(() -> slots.release(cancelled), () -> slots.reserve(cancelled));
+        tx.onCommit(() -> bookings.removeFlight(flightId), () -> {
+            // Put the manifest back so a failed rebooking leaves the flight as it was
+            int capacity = cancelled.getPlane().getMaxCapacity();
+            bookings.addFlight(flightId, cancelled.getPlane().getId());
+            for (long pid : manifest) bookings.book(flightId, pid, capacity);
+        });
+        tx.onCommit(() -> outcomes[0] = bookings.bookAll(flightIds, passengerIds, capacities));
+        tx.commit();
+
+        Map<Long, String> rebooked = new LinkedHashMap<>(planned.getRebooked());
+        List<Long> unaccommodated = new ArrayList<>(planned.getUnaccommodated());
+        for (int k = 0; k < n; k++) {
+            if (outcomes[0][k] == BookingIndex.Outcome.FULL) {
+                rebooked.remove(passengerIds[k]);
+                unaccommodated.add(passengerIds[k]);
+            }
+        }
+        return new Reaccommodation(flightId, rebooked, unaccommodated);
+    }
+
+    private static long toEpochMinute(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private Flight copyOf(Flight f) {
+        return new Flight(f, bookings.countPassengers(f.getId()));
+    }
+}
@@ -1,13 +1,21 @@
 package airport.controller;
 
 import airport.model.Location;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
 import airport.observer.Observer;
 import airport.observer.Subject;
+import airport.operations.GateAssignment;
+import airport.operations.GatePlanner;
+import airport.operations.OperationalAggregates;
 import airport.response.Response;
 import airport.response.StatusCode;
 import airport.storage.Repository;
+import airport.storage.SlotTable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -16,10 +24,17 @@ import java.util.stream.Collectors;
 public class LocationController implements Subject {
     private static final Pattern ID_PATTERN = Pattern.compile("^[A-Z]{3}$");
     private final Repository<Location, String> repository;
+    private final SlotTable slots;
+    private final GatePlanner gates;
+    private final OperationalAggregates aggregates;
     private final List<Observer> observers;
 
-    public LocationController(Repository<Location, String> repository) {
+    public LocationController(Repository<Location, String> repository, SlotTable slots, GatePlanner gates,
+                              OperationalAggregates aggregates) {
         this.repository = repository;
+        this.slots = slots;
+        this.gates = gates;
+        this.aggregates = aggregates;
         this.observers = new ArrayList<>();
     }
 
@@ -42,6 +57,13 @@ public class LocationController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Location> createLocation(String airportId,
                                              String name,
                                              String city,
@@ -72,36 +94,119 @@ public class LocationController implements Subject {
         Location saved = repository.save(
                 new Location(airportId, name, city, country, latitude, longitude)
         );
-        Location clone = new Location(
-                saved.getAirportId(),
-                saved.getAirportName(),
-                saved.getAirportCity(),
-                saved.getAirportCountry(),
-                saved.getAirportLatitude(),
-                saved.getAirportLongitude()
-        );
-        notifyObservers("location"); // Notify observers
+        Location clone = copyOf(saved);
+        notifyObservers(ChangeEvent.of("location", ChangeType.CREATED, saved.getAirportId()));
         return Response.of(StatusCode.CREATED,
                 "Localización creada exitosamente",
                 clone);
     }
 
+    /**
+     * Fija cuántas salidas y cuántas llegadas admite el aeropuerto en cada
+     * franja de {@link SlotTable#getBucketMinutes()} minutos. Los vuelos ya
+     * programados se conservan aunque superen el nuevo límite.
+     */
+    public Response<Location> setSlotCapacity(String airportId, int maxDepartures, int maxArrivals) {
+        Location l = repository.findById(airportId).orElse(null);
+        if (l == null)
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización con ID=" + airportId);
+        if (maxDepartures < 1 || maxArrivals < 1)
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La capacidad de slots debe ser mayor que 0");
+        slots.setCapacity(airportId, maxDepartures, maxArrivals);
+        notifyObservers(ChangeEvent.of("location", ChangeType.UPDATED, airportId));
+        return Response.of(StatusCode.OK,
+                "Capacidad de slots actualizada", copyOf(l));
+    }
+
+    /** Puerta de cada salida y llegada del aeropuerto, en orden de inicio. */
+    public Response<List<GateAssignment>> getGatePlan(String airportId) {
+        if (repository.findById(airportId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización con ID=" + airportId);
+        List<GateAssignment> plan = gates.plan(airportId);
+        return Response.of(StatusCode.OK,
+                "Puertas necesarias: " + gates.gatesNeeded(airportId), plan);
+    }
+
+    /** Vuelos que salen del aeropuerto ese día. O(1). */
+    public Response<Long> getDepartureCount(String airportId, LocalDate day) {
+        Response<Long> invalid = checkDay(airportId, day);
+        if (invalid != null) return invalid;
+        return Response.of(StatusCode.OK, "Salidas de " + airportId + " el " + day,
+                aggregates.getDepartures(airportId, day));
+    }
+
+    /** Vuelos que llegan al aeropuerto ese día. O(1). */
+    public Response<Long> getArrivalCount(String airportId, LocalDate day) {
+        Response<Long> invalid = checkDay(airportId, day);
+        if (invalid != null) return invalid;
+        return Response.of(StatusCode.OK, "Llegadas a " + airportId + " el " + day,
+                aggregates.getArrivals(airportId, day));
+    }
+
+    private Response<Long> checkDay(String airportId, LocalDate day) {
+        if (repository.findById(airportId).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización con ID=" + airportId);
+        if (day == null)
+            return Response.of(StatusCode.BAD_REQUEST, "El día es obligatorio");
+        return null;
+    }
+
     public Response<List<Location>> getAllLocations() {
         List<Location> originals = repository.findAll();
         List<Location> clones = originals.stream()
-                .map(l -> new Location(
-                        l.getAirportId(),
-                        l.getAirportName(),
-                        l.getAirportCity(),
-                        l.getAirportCountry(),
-                        l.getAirportLatitude(),
-                        l.getAirportLongitude()))
+                .map(LocationController::copyOf)
                 .collect(Collectors.toList());
         return Response.of(StatusCode.OK,
                 "Listado de localizaciones",
                 clones);
     }
 
+    public Response<Location> getLocation(String airportId) {
+        Location l = repository.findById(airportId).orElse(null);
+        if (l == null)
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe localización con ID=" + airportId);
+        return Response.of(StatusCode.OK, "Localización encontrada", copyOf(l));
+    }
+
+    /**
+     * Vista perezosa de todas las localizaciones: no copia la lista y clona
+     * cada localización solo cuando se lee su posición.
+     */
+    public Response<List<Location>> getLocationsView() {
+        List<Location> view = repository.view();
+        List<Location> clones = new AbstractList<>() {
+            @Override
+            public Location get(int index) {
+                return copyOf(view.get(index));
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+        };
+        return Response.of(StatusCode.OK, "Listado de localizaciones", clones);
+    }
+
+    /** IDs de todas las localizaciones en orden, sin clonar cada una (para combos). */
+    public Response<List<String>> getLocationIds() {
+        List<Location> view = repository.view();
+        List<String> ids = new ArrayList<>(view.size());
+        for (Location l : view) {
+            ids.add(l.getAirportId());
+        }
+        return Response.of(StatusCode.OK, "IDs de localizaciones", ids);
+    }
+
+    private static Location copyOf(Location l) {
+        return new Location(l);
+    }
+
     private int decimalScale(double value) {
         BigDecimal bd = BigDecimal.valueOf(value).stripTrailingZeros();
         return Math.max(0, bd.scale());
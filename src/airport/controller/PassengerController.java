@@ -1,25 +1,45 @@
 package airport.controller;
 
 import airport.model.Passenger;
+import airport.model.StringDictionary;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
 import airport.observer.Observer;
 import airport.observer.Subject;
 import airport.response.Response;
 import airport.response.StatusCode;
+import airport.storage.BookingIndex;
+import airport.storage.PassengerSearchIndex;
 import airport.storage.Repository;
+import airport.storage.Transaction;
+import airport.storage.TransactionManager;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class PassengerController implements Subject {
     private final Repository<Passenger, Long> repository;
+    private final BookingIndex bookings;
+    private final TransactionManager transactions;
+    private final PassengerSearchIndex searchIndex;
     private final List<Observer> observers;
 
-    public PassengerController(Repository<Passenger, Long> repository) {
+    public PassengerController(Repository<Passenger, Long> repository,
+                               BookingIndex bookings,
+                               TransactionManager transactions) {
         this.repository = repository;
+        this.bookings = bookings;
+        this.transactions = transactions;
+        this.searchIndex = new PassengerSearchIndex();
         this.observers = new ArrayList<>();
+        for (Passenger p : repository.findAll()) {
+            searchIndex.index(p.getId(), p.getFirstname(), p.getLastname());
+        }
     }
 
     @Override
@@ -41,6 +61,13 @@ public class PassengerController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Passenger> registerPassenger(long id,
                                                  String firstname,
                                                  String lastname,
@@ -70,16 +97,9 @@ public class PassengerController implements Subject {
             return Response.of(StatusCode.BAD_REQUEST, "Country no puede estar vacío");
 
         Passenger saved = repository.save(new Passenger(id, firstname, lastname, birthDate, countryPhoneCode, phone, country));
-        Passenger clone = new Passenger(
-                saved.getId(),
-                saved.getFirstname(),
-                saved.getLastname(),
-                saved.getBirthDate(),
-                saved.getCountryPhoneCode(),
-                saved.getPhone(),
-                saved.getCountry()
-        );
-        notifyObservers("passenger"); // Notify observers
+        searchIndex.index(saved.getId(), saved.getFirstname(), saved.getLastname());
+        Passenger clone = copyOf(saved);
+        notifyObservers(ChangeEvent.of("passenger", ChangeType.CREATED, String.valueOf(saved.getId())));
         return Response.of(StatusCode.CREATED, "Pasajero registrado exitosamente", clone);
     }
 
@@ -95,6 +115,27 @@ public class PassengerController implements Subject {
         Passenger existing = repository.findById(id).orElse(null);
         if (existing == null)
             return Response.of(StatusCode.NOT_FOUND, "No existe pasajero con ID=" + id);
+        return updatePassenger(id, firstname, lastname, birthYear, birthMonth, birthDay,
+                countryPhoneCode, phone, country, existing.getVersion());
+    }
+
+    /**
+     * Igual que el anterior, pero solo aplica el cambio si el pasajero sigue en
+     * {@code expectedVersion}, la versión que leyó quien edita. Si otra edición
+     * se adelantó devuelve CONFLICT en lugar de sobrescribirla.
+     */
+    public Response<Passenger> updatePassenger(long id,
+                                               String firstname,
+                                               String lastname,
+                                               int birthYear,
+                                               int birthMonth,
+                                               int birthDay,
+                                               int countryPhoneCode,
+                                               long phone,
+                                               String country,
+                                               long expectedVersion) {
+        if (repository.findById(id).isEmpty())
+            return Response.of(StatusCode.NOT_FOUND, "No existe pasajero con ID=" + id);
         if (firstname == null || firstname.isBlank() || lastname == null || lastname.isBlank())
             return Response.of(StatusCode.BAD_REQUEST, "First name y Last name no pueden estar vacíos");
         LocalDate birthDate;
@@ -110,42 +151,113 @@ public class PassengerController implements Subject {
         if (country == null || country.isBlank())
             return Response.of(StatusCode.BAD_REQUEST, "Country no puede estar vacío");
 
-        existing.setFirstname(firstname);
-        existing.setLastname(lastname);
-        existing.setBirthDate(birthDate);
-        existing.setCountryPhoneCode(countryPhoneCode);
-        existing.setPhone(phone);
-        existing.setCountry(country);
-
-        Passenger updated = repository.update(existing);
-        Passenger clone = new Passenger(
-                updated.getId(),
-                updated.getFirstname(),
-                updated.getLastname(),
-                updated.getBirthDate(),
-                updated.getCountryPhoneCode(),
-                updated.getPhone(),
-                updated.getCountry()
-        );
-        notifyObservers("passenger"); // Notify observers
+        // Publish a new version instead of mutating the one readers may hold
+        Optional<Passenger> result = repository.update(new Passenger(
+                id, firstname, lastname, birthDate, countryPhoneCode, phone, country), expectedVersion);
+        if (result.isEmpty())
+            return Response.of(StatusCode.CONFLICT,
+                    "El pasajero fue modificado por otra edición; vuelva a cargarlo");
+        Passenger updated = result.get();
+        synchronized (searchIndex) {
+            // index whatever version is current, so racing updates cannot leave a stale entry
+            repository.findById(id).ifPresent(p ->
+                    searchIndex.index(p.getId(), p.getFirstname(), p.getLastname()));
+        }
+        Passenger clone = copyOf(updated);
+        notifyObservers(ChangeEvent.of("passenger", ChangeType.UPDATED, String.valueOf(updated.getId())));
         return Response.of(StatusCode.OK, "Pasajero actualizado exitosamente", clone);
     }
 
+    /** Borra al pasajero y lo quita del manifiesto de todos sus vuelos. */
+    public Response<Passenger> deletePassenger(long id) {
+        Passenger clone;
+        List<String> unbookedFlights = new ArrayList<>();
+        try (Transaction tx = transactions.begin(TransactionManager.key("passenger", id))) {
+            Passenger p = repository.findById(id).orElse(null);
+            if (p == null)
+                return Response.of(StatusCode.NOT_FOUND, "No existe pasajero con ID=" + id);
+            clone = copyOf(p);
+            tx.delete(repository, id);
+            tx.onCommit(() -> searchIndex.remove(id),
+                    () -> searchIndex.index(id, p.getFirstname(), p.getLastname()));
+            tx.onCommit(() -> unbookedFlights.addAll(bookings.removePassenger(id)));
+            tx.commit();
+        }
+        notifyObservers(ChangeEvent.of("passenger", ChangeType.DELETED, String.valueOf(id)));
+        if (!unbookedFlights.isEmpty()) {
+            notifyObservers(ChangeEvent.of("flight", ChangeType.MANIFEST_CHANGED, unbookedFlights));
+        }
+        return Response.of(StatusCode.OK, "Pasajero eliminado exitosamente", clone);
+    }
+
+    public Response<Passenger> getPassenger(long id) {
+        Passenger p = repository.findById(id).orElse(null);
+        if (p == null)
+            return Response.of(StatusCode.NOT_FOUND, "No existe pasajero con ID=" + id);
+        return Response.of(StatusCode.OK, "Pasajero encontrado", copyOf(p));
+    }
+
     public Response<List<Passenger>> getAllPassengers() {
         List<Passenger> originals = repository.findAll();
         List<Passenger> clones = originals.stream()
-                .map(p -> new Passenger(
-                        p.getId(),
-                        p.getFirstname(),
-                        p.getLastname(),
-                        p.getBirthDate(),
-                        p.getCountryPhoneCode(),
-                        p.getPhone(),
-                        p.getCountry()
-                ))
+                .map(this::copyOf)
                 .collect(Collectors.toList());
         // No notification needed for getAll, as it doesn't change data state
         return Response.of(StatusCode.OK, "Listado de pasajeros", clones);
     }
+
+    /**
+     * Vista perezosa de todos los pasajeros: no copia la lista y clona
+     * cada pasajero solo cuando se lee su posición.
+     */
+    public Response<List<Passenger>> getPassengersView() {
+        List<Passenger> view = repository.view();
+        List<Passenger> clones = new AbstractList<>() {
+            @Override
+            public Passenger get(int index) {
+                return copyOf(view.get(index));
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+        };
+        return Response.of(StatusCode.OK, "Listado de pasajeros", clones);
+    }
+
+    /** Pasajeros de un país; el filtro compara códigos del diccionario, no cadenas. */
+    public Response<List<Passenger>> getPassengersByCountry(String country) {
+        if (country == null || country.isBlank())
+            return Response.of(StatusCode.BAD_REQUEST, "Country no puede estar vacío");
+        int code = StringDictionary.lookup(country);
+        List<Passenger> matches = new ArrayList<>();
+        if (code != StringDictionary.ABSENT) {
+            for (Passenger p : repository.view()) {
+                if (p.getCountryCode() == code) {
+                    matches.add(copyOf(p));
+                }
+            }
+        }
+        return Response.of(StatusCode.OK, "Pasajeros de " + country, matches);
+    }
+
+    /**
+     * Búsqueda incremental por prefijo de ID o de nombre/apellido.
+     * Devuelve como mucho {@code limit} pasajeros, IDs que coinciden primero.
+     */
+    public Response<List<Passenger>> searchPassengers(String query, int limit) {
+        if (limit <= 0)
+            return Response.of(StatusCode.BAD_REQUEST, "El límite debe ser mayor que 0");
+        List<Passenger> matches = new ArrayList<>();
+        for (Long id : searchIndex.search(query, limit)) {
+            repository.findById(id).ifPresent(p -> matches.add(copyOf(p)));
+        }
+        return Response.of(StatusCode.OK, "Resultados de la búsqueda", matches);
+    }
+
+    private Passenger copyOf(Passenger p) {
+        return new Passenger(p, bookings.countFlights(p.getId()));
+    }
 }
 
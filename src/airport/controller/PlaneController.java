@@ -1,12 +1,19 @@
 package airport.controller;
 
 import airport.model.Plane;
+import airport.model.StringDictionary;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
 import airport.observer.Observer;
 import airport.observer.Subject;
 import airport.response.Response;
 import airport.response.StatusCode;
+import airport.storage.BookingIndex;
 import airport.storage.Repository;
+import airport.storage.Transaction;
+import airport.storage.TransactionManager;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -15,10 +22,16 @@ import java.util.stream.Collectors;
 public class PlaneController implements Subject {
     private static final Pattern ID_PATTERN = Pattern.compile("^[A-Z]{2}\\d{5}$");
     private final Repository<Plane, String> repository;
+    private final BookingIndex bookings;
+    private final TransactionManager transactions;
     private final List<Observer> observers;
 
-    public PlaneController(Repository<Plane, String> repository) {
+    public PlaneController(Repository<Plane, String> repository,
+                           BookingIndex bookings,
+                           TransactionManager transactions) {
         this.repository = repository;
+        this.bookings = bookings;
+        this.transactions = transactions;
         this.observers = new ArrayList<>();
     }
 
@@ -41,6 +54,13 @@ public class PlaneController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Plane> createPlane(String id,
                                        String brand,
                                        String model,
@@ -68,33 +88,98 @@ public class PlaneController implements Subject {
         Plane saved = repository.save(
                 new Plane(id, brand, model, maxCapacity, airline)
         );
-        Plane clone = new Plane(
-                saved.getId(),
-                saved.getBrand(),
-                saved.getModel(),
-                saved.getMaxCapacity(),
-                saved.getAirline()
-        );
-        notifyObservers("plane"); // Notify observers
+        Plane clone = copyOf(saved);
+        notifyObservers(ChangeEvent.of("plane", ChangeType.CREATED, saved.getId()));
         return Response.of(StatusCode.CREATED,
                 "Avión creado exitosamente",
                 clone);
     }
 
+    public Response<Plane> getPlane(String id) {
+        Plane p = repository.findById(id).orElse(null);
+        if (p == null)
+            return Response.of(StatusCode.NOT_FOUND,
+                    "No existe avión con ID=" + id);
+        return Response.of(StatusCode.OK, "Avión encontrado", copyOf(p));
+    }
+
     public Response<List<Plane>> getAllPlanes() {
         List<Plane> list = repository.findAll();
         List<Plane> clones = list.stream()
-                .map(p -> new Plane(
-                        p.getId(),
-                        p.getBrand(),
-                        p.getModel(),
-                        p.getMaxCapacity(),
-                        p.getAirline()
-                ))
+                .map(this::copyOf)
                 .collect(Collectors.toList());
         return Response.of(StatusCode.OK,
                 "Listado de aviones",
                 clones);
     }
+
+    /**
+     * Vista perezosa de todos los aviones: no copia la lista y clona
+     * cada avión solo cuando se lee su posición.
+     */
+    public Response<List<Plane>> getPlanesView() {
+        List<Plane> view = repository.view();
+        List<Plane> clones = new AbstractList<>() {
+            @Override
+            public Plane get(int index) {
+                return copyOf(view.get(index));
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+        };
+        return Response.of(StatusCode.OK, "Listado de aviones", clones);
+    }
+
+    /** Aviones de una aerolínea; el filtro compara códigos del diccionario, no cadenas. */
+    public Response<List<Plane>> getPlanesByAirline(String airline) {
+        if (airline == null || airline.isBlank())
+            return Response.of(StatusCode.BAD_REQUEST, "Airline no puede estar vacía");
+        int code = StringDictionary.lookup(airline);
+        List<Plane> matches = new ArrayList<>();
+        if (code != StringDictionary.ABSENT) {
+            for (Plane p : repository.view()) {
+                if (p.getAirlineCode() == code) {
+                    matches.add(copyOf(p));
+                }
+            }
+        }
+        return Response.of(StatusCode.OK, "Aviones de " + airline, matches);
+    }
+
+    /** IDs de todos los aviones en orden, sin clonar cada avión (para combos). */
+    public Response<List<String>> getPlaneIds() {
+        List<Plane> view = repository.view();
+        List<String> ids = new ArrayList<>(view.size());
+        for (Plane p : view) {
+            ids.add(p.getId());
+        }
+        return Response.of(StatusCode.OK, "IDs de aviones", ids);
+    }
+
+    /** Retira un avión; solo se permite si ya no tiene vuelos asignados. */
+    public Response<Plane> deletePlane(String id) {
+        Plane clone;
+        try (Transaction tx = transactions.begin(TransactionManager.key("plane", id))) {
+            Plane p = repository.findById(id).orElse(null);
+            if (p == null)
+                return Response.of(StatusCode.NOT_FOUND, "No existe avión con ID=" + id);
+            if (bookings.countPlaneFlights(id) > 0)
+                return Response.of(StatusCode.CONFLICT,
+                        "El avión tiene vuelos asignados; elimínelos antes de retirarlo");
+            clone = copyOf(p);
+            tx.delete(repository, id);
+            tx.onCommit(() -> bookings.removePlane(id));
+            tx.commit();
+        }
+        notifyObservers(ChangeEvent.of("plane", ChangeType.DELETED, id));
+        return Response.of(StatusCode.OK, "Avión retirado exitosamente", clone);
+    }
+
+    private Plane copyOf(Plane p) {
+        return new Plane(p, bookings.countPlaneFlights(p.getId()));
+    }
 }
 
@@ -0,0 +1,29 @@
+package airport.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Día calendario actual (epoch day, zona del sistema) sin crear objetos en
+ * cada consulta: solo se recalcula al pasar la medianoche.
+ */
+final class CalendarDay {
+
+    private static volatile long today;
+    private static volatile long nextMidnightMillis = Long.MIN_VALUE;
+
+    private CalendarDay() {
+    }
+
+    static long today() {
+        long now = System.currentTimeMillis();
+        if (now >= nextMidnightMillis || now < nextMidnightMillis - 86_400_000L) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            today = date.toEpochDay();
+            nextMidnightMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return today;
+    }
+}
@@ -5,7 +5,7 @@
 package airport.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneOffset;
 
 /**
  *
@@ -14,49 +14,64 @@ import java.util.ArrayList;
 public class Flight {
     
     private final String id;
-    private ArrayList<Passenger> passengers;
     private Plane plane;
     private Location departureLocation;
     private Location scaleLocation;
     private Location arrivalLocation;
-    private LocalDateTime departureDate;
-    private int hoursDurationArrival;
-    private int minutesDurationArrival;
-    private int hoursDurationScale;
-    private int minutesDurationScale;
+    private long departureMinute;   // minutos desde 1970-01-01T00:00 (hora local del vuelo)
+    private long scheduledDepartureMinute; // salida programada; los retrasos no la cambian
+    private int delayCount;
+    private short durationArrival;  // minutos
+    private short durationScale;    // minutos
+    private LocalDateTime arrivalDate; // derivada de salida + duraciones
+    private int numPassengers; // solo en copias: pasajeros al momento de copiar
+    private long version; // lo asigna el repositorio al guardar
+    
+    /** Duración máxima (llegada o escala) que admite el formato compacto. */
+    public static final int MAX_DURATION_MINUTES = Short.MAX_VALUE;
     
 
     public Flight(String id, Plane plane, Location departureLocation, Location arrivalLocation, LocalDateTime departureDate, int hoursDurationArrival, int minutesDurationArrival) {
         this.id = id;
-        this.passengers = new ArrayList<>();
         this.plane = plane;
         this.departureLocation = departureLocation;
         this.arrivalLocation = arrivalLocation;
-        this.departureDate = departureDate;
-        this.hoursDurationArrival = hoursDurationArrival;
-        this.minutesDurationArrival = minutesDurationArrival;
-        
-        this.plane.addFlight(this);
+        this.departureMinute = toEpochMinute(departureDate);
+        this.scheduledDepartureMinute = departureMinute;
+        this.durationArrival = toDuration(hoursDurationArrival, minutesDurationArrival);
     }
 
     public Flight(String id, Plane plane, Location departureLocation, Location scaleLocation, Location arrivalLocation, LocalDateTime departureDate, int hoursDurationArrival, int minutesDurationArrival, int hoursDurationScale, int minutesDurationScale) {
         this.id = id;
-        this.passengers = new ArrayList<>();
         this.plane = plane;
         this.departureLocation = departureLocation;
         this.scaleLocation = scaleLocation;
         this.arrivalLocation = arrivalLocation;
-        this.departureDate = departureDate;
-        this.hoursDurationArrival = hoursDurationArrival;
-        this.minutesDurationArrival = minutesDurationArrival;
-        this.hoursDurationScale = hoursDurationScale;
-        this.minutesDurationScale = minutesDurationScale;
-        
-        this.plane.addFlight(this);
+        this.departureMinute = toEpochMinute(departureDate);
+        this.scheduledDepartureMinute = departureMinute;
+        this.durationArrival = toDuration(hoursDurationArrival, minutesDurationArrival);
+        this.durationScale = toDuration(hoursDurationScale, minutesDurationScale);
     }
     
-    public void addPassenger(Passenger passenger) {
-        this.passengers.add(passenger);
+    /**
+     * Copia (para lectura o como nueva versión) que comparte avión y
+     * localizaciones. Las reservas viven en el almacenamiento, así que quien
+     * copia indica cuántos pasajeros tiene el vuelo.
+     */
+    public Flight(Flight source, int numPassengers) {
+        this.id = source.id;
+        this.plane = source.plane;
+        this.departureLocation = source.departureLocation;
+        this.scaleLocation = source.scaleLocation;
+        this.arrivalLocation = source.arrivalLocation;
+        this.departureMinute = source.departureMinute;
+        this.scheduledDepartureMinute = source.scheduledDepartureMinute;
+        this.delayCount = source.delayCount;
+        this.durationArrival = source.durationArrival;
+        this.durationScale = source.durationScale;
+        this.arrivalDate = source.calculateArrivalDate();
+        this.numPassengers = numPassengers;
+        this.version = source.version;
     }
     
     public String getId() {
@@ -76,43 +91,104 @@ public class Flight {
     }
 
     public LocalDateTime getDepartureDate() {
-        return departureDate;
+        return LocalDateTime.ofEpochSecond(departureMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /** Salida en minutos desde la época; permite ordenar sin crear fechas. */
+    public long getDepartureMinute() {
+        return departureMinute;
+    }
+
+    /** Salida según el horario original, antes de cualquier retraso. */
+    public LocalDateTime getScheduledDepartureDate() {
+        return LocalDateTime.ofEpochSecond(scheduledDepartureMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    public long getScheduledDepartureMinute() {
+        return scheduledDepartureMinute;
+    }
+
+    /** Retraso acumulado: salida actual menos salida programada. */
+    public long getDelayMinutes() {
+        return departureMinute - scheduledDepartureMinute;
+    }
+
+    /** Veces que se ha retrasado el vuelo. */
+    public int getDelayCount() {
+        return delayCount;
+    }
+
+    /** Llegada (tras escala y vuelo) en minutos desde la época. */
+    public long getArrivalMinute() {
+        return departureMinute + durationScale + durationArrival;
     }
 
     public int getHoursDurationArrival() {
-        return hoursDurationArrival;
+        return durationArrival / 60;
     }
 
     public int getMinutesDurationArrival() {
-        return minutesDurationArrival;
+        return durationArrival % 60;
     }
 
     public int getHoursDurationScale() {
-        return hoursDurationScale;
+        return durationScale / 60;
     }
 
     public int getMinutesDurationScale() {
-        return minutesDurationScale;
+        return durationScale % 60;
     }
 
     public Plane getPlane() {
         return plane;
     }
 
+    /** Cambia el horario programado; el retraso acumulado vuelve a cero. */
     public void setDepartureDate(LocalDateTime departureDate) {
-        this.departureDate = departureDate;
+        this.departureMinute = toEpochMinute(departureDate);
+        this.scheduledDepartureMinute = departureMinute;
+        this.delayCount = 0;
+        this.arrivalDate = null;
     }
     
     public LocalDateTime calculateArrivalDate() {
-        return departureDate.plusHours(hoursDurationScale).plusHours(hoursDurationArrival).plusMinutes(minutesDurationScale).plusMinutes(minutesDurationArrival);
+        LocalDateTime arrival = arrivalDate;
+        if (arrival == null) {
+            arrival = LocalDateTime.ofEpochSecond(
+                    (departureMinute + durationScale + durationArrival) * 60, 0, ZoneOffset.UTC);
+            arrivalDate = arrival;
+        }
+        return arrival;
     }
     
     public void delay(int hours, int minutes) {
-        this.departureDate = this.departureDate.plusHours(hours).plusMinutes(minutes);
+        this.departureMinute += 60L * hours + minutes;
+        this.delayCount++;
+        this.arrivalDate = null;
     }
     
     public int getNumPassengers() {
-        return passengers.size();
+        return numPassengers;
     }
     
+    private static long toEpochMinute(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+    
+    private static short toDuration(int hours, int minutes) {
+        int total = hours * 60 + minutes;
+        if (total < 0 || total > MAX_DURATION_MINUTES)
+            throw new IllegalArgumentException("Duración fuera de rango: " + hours + ":" + minutes);
+        return (short) total;
+    }
+
+    /** Versión guardada; el repositorio la incrementa en cada escritura. */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -12,18 +12,33 @@ public class Location {
     
     private final String airportId;
     private String airportName;
-    private String airportCity;
-    private String airportCountry;
-    private double airportLatitude;
-    private double airportLongitude;
+    private int airportCity;    // código en StringDictionary
+    private int airportCountry; // código en StringDictionary
+    // Coordenadas en punto fijo (grados x 10^4): el controlador ya las limita a 4 decimales
+    private int airportLatitude;
+    private int airportLongitude;
+    private long version; // lo asigna el repositorio al guardar
+
+    private static final double COORDINATE_SCALE = 10_000.0;
 
     public Location(String airportId, String airportName, String airportCity, String airportCountry, double airportLatitude, double airportLongitude) {
         this.airportId = airportId;
         this.airportName = airportName;
-        this.airportCity = airportCity;
-        this.airportCountry = airportCountry;
-        this.airportLatitude = airportLatitude;
-        this.airportLongitude = airportLongitude;
+        this.airportCity = StringDictionary.encode(airportCity);
+        this.airportCountry = StringDictionary.encode(airportCountry);
+        this.airportLatitude = (int) Math.round(airportLatitude * COORDINATE_SCALE);
+        this.airportLongitude = (int) Math.round(airportLongitude * COORDINATE_SCALE);
+    }
+
+    /** Copia para lectura, sin volver a codificar cadenas ni coordenadas. */
+    public Location(Location source) {
+        this.airportId = source.airportId;
+        this.airportName = source.airportName;
+        this.airportCity = source.airportCity;
+        this.airportCountry = source.airportCountry;
+        this.airportLatitude = source.airportLatitude;
+        this.airportLongitude = source.airportLongitude;
+        this.version = source.version;
     }
 
     public String getAirportId() {
@@ -35,19 +50,36 @@ public class Location {
     }
 
     public String getAirportCity() {
+        return StringDictionary.decode(airportCity);
+    }
+
+    public int getAirportCityCode() {
         return airportCity;
     }
 
     public String getAirportCountry() {
+        return StringDictionary.decode(airportCountry);
+    }
+
+    public int getAirportCountryCode() {
         return airportCountry;
     }
 
     public double getAirportLatitude() {
-        return airportLatitude;
+        return airportLatitude / COORDINATE_SCALE;
     }
 
     public double getAirportLongitude() {
-        return airportLongitude;
+        return airportLongitude / COORDINATE_SCALE;
     }
-    
+
+    /** Versión guardada; el repositorio la incrementa en cada escritura. */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -6,7 +6,6 @@ package airport.model;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.ArrayList;
 
 /**
  *
@@ -17,25 +16,48 @@ public class Passenger {
     private final long id;
     private String firstname;
     private String lastname;
-    private LocalDate birthDate;
-    private int countryPhoneCode;
+    private int birthEpochDay;     // LocalDate.toEpochDay()
+    private short countryPhoneCode; // el controlador lo limita a 3 dígitos
     private long phone;
-    private String country;
-    private ArrayList<Flight> flights;
+    private int country; // código en StringDictionary
+    
+    // Valores derivados; se recalculan solo cuando cambia el dato del que salen
+    private String fullname;
+    private String fullPhone;
+    private volatile long ageStamp = Long.MIN_VALUE; // (epochDay << 16) | edad
+    private int numFlights; // solo en copias: vuelos al momento de copiar
+    private long version; // lo asigna el repositorio al guardar
 
     public Passenger(long id, String firstname, String lastname, LocalDate birthDate, int countryPhoneCode, long phone, String country) {
         this.id = id;
         this.firstname = firstname;
         this.lastname = lastname;
-        this.birthDate = birthDate;
-        this.countryPhoneCode = countryPhoneCode;
+        this.birthEpochDay = (int) birthDate.toEpochDay();
+        this.countryPhoneCode = (short) countryPhoneCode;
         this.phone = phone;
-        this.country = country;
-        this.flights = new ArrayList<>();
-    }
-
-    public void addFlight(Flight flight) {
-        this.flights.add(flight);
+        this.country = StringDictionary.encode(country);
+    }
+
+    /**
+     * Copia para lectura. Reutiliza los valores derivados del original
+     * (calculándolos allí si hace falta), así que copiar de nuevo el mismo
+     * pasajero no vuelve a formatear nombre, teléfono ni edad. Las reservas
+     * viven en el almacenamiento, así que quien copia indica el número de vuelos.
+     */
+    public Passenger(Passenger source, int numFlights) {
+        this.id = source.id;
+        this.firstname = source.firstname;
+        this.lastname = source.lastname;
+        this.birthEpochDay = source.birthEpochDay;
+        this.countryPhoneCode = source.countryPhoneCode;
+        this.phone = source.phone;
+        this.country = source.country;
+        this.fullname = source.getFullname();
+        this.fullPhone = source.generateFullPhone();
+        source.calculateAge();
+        this.ageStamp = source.ageStamp;
+        this.numFlights = numFlights;
+        this.version = source.version;
     }
     
     public long getId() {
@@ -51,7 +73,7 @@ public class Passenger {
     }
 
     public LocalDate getBirthDate() {
-        return birthDate;
+        return LocalDate.ofEpochDay(birthEpochDay);
     }
 
     public int getCountryPhoneCode() {
@@ -63,51 +85,83 @@ public class Passenger {
     }
 
     public String getCountry() {
-        return country;
+        return StringDictionary.decode(country);
     }
 
-    public ArrayList<Flight> getFlights() {
-        return flights;
+    public int getCountryCode() {
+        return country;
     }
 
     public void setFirstname(String firstname) {
         this.firstname = firstname;
+        this.fullname = null;
     }
 
     public void setLastname(String lastname) {
         this.lastname = lastname;
+        this.fullname = null;
     }
 
     public void setBirthDate(LocalDate birthDate) {
-        this.birthDate = birthDate;
+        this.birthEpochDay = (int) birthDate.toEpochDay();
+        this.ageStamp = Long.MIN_VALUE;
     }
 
     public void setCountryPhoneCode(int countryPhoneCode) {
-        this.countryPhoneCode = countryPhoneCode;
+        this.countryPhoneCode = (short) countryPhoneCode;
+        this.fullPhone = null;
     }
 
     public void setPhone(long phone) {
         this.phone = phone;
+        this.fullPhone = null;
     }
 
     public void setCountry(String country) {
-        this.country = country;
+        this.country = StringDictionary.encode(country);
     }
     
     public String getFullname() {
-        return firstname + " " + lastname;
+        String name = fullname;
+        if (name == null) {
+            name = firstname + " " + lastname;
+            fullname = name;
+        }
+        return name;
     }
     
     public String generateFullPhone() {
-        return "+" + countryPhoneCode + " " + phone;
+        String full = fullPhone;
+        if (full == null) {
+            full = "+" + countryPhoneCode + " " + phone;
+            fullPhone = full;
+        }
+        return full;
     }
     
+    // La edad se calcula una vez por día calendario
     public int calculateAge() {
-        return Period.between(birthDate, LocalDate.now()).getYears();
+        long today = CalendarDay.today();
+        long stamp = ageStamp;
+        if ((stamp >> 16) != today) {
+            int age = Period.between(getBirthDate(), LocalDate.ofEpochDay(today)).getYears();
+            stamp = (today << 16) | (age & 0xFFFF);
+            ageStamp = stamp;
+        }
+        return (short) stamp;
     }
     
     public int getNumFlights() {
-        return flights.size();
+        return numFlights;
     }
-    
+
+    /** Versión guardada; el repositorio la incrementa en cada escritura. */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -4,8 +4,6 @@
  */
 package airport.model;
 
-import java.util.ArrayList;
-
 /**
  *
  * @author edangulo
@@ -13,23 +11,34 @@ import java.util.ArrayList;
 public class Plane {
     
     private final String id;
-    private String brand;
-    private String model;
+    // Códigos en StringDictionary
+    private int brand;
+    private int model;
     private final int maxCapacity;
-    private String airline;
-    private ArrayList<Flight> flights;
+    private int airline;
+    private int numFlights; // solo en copias: vuelos al momento de copiar
+    private long version; // lo asigna el repositorio al guardar
 
     public Plane(String id, String brand, String model, int maxCapacity, String airline) {
         this.id = id;
-        this.brand = brand;
-        this.model = model;
+        this.brand = StringDictionary.encode(brand);
+        this.model = StringDictionary.encode(model);
         this.maxCapacity = maxCapacity;
-        this.airline = airline;
-        this.flights = new ArrayList<>();
+        this.airline = StringDictionary.encode(airline);
     }
 
-    public void addFlight(Flight flight) {
-        this.flights.add(flight);
+    /**
+     * Copia para lectura. Los vuelos del avión viven en el almacenamiento,
+     * así que quien copia indica cuántos tiene.
+     */
+    public Plane(Plane source, int numFlights) {
+        this.id = source.id;
+        this.brand = source.brand;
+        this.model = source.model;
+        this.maxCapacity = source.maxCapacity;
+        this.airline = source.airline;
+        this.numFlights = numFlights;
+        this.version = source.version;
     }
     
     public String getId() {
@@ -37,11 +46,11 @@ public class Plane {
     }
 
     public String getBrand() {
-        return brand;
+        return StringDictionary.decode(brand);
     }
 
     public String getModel() {
-        return model;
+        return StringDictionary.decode(model);
     }
 
     public int getMaxCapacity() {
@@ -49,15 +58,28 @@ public class Plane {
     }
 
     public String getAirline() {
+        return StringDictionary.decode(airline);
+    }
+
+    public int getAirlineCode() {
         return airline;
     }
 
-    public ArrayList<Flight> getFlights() {
-        return flights;
+    public int getModelCode() {
+        return model;
     }
-    
+
     public int getNumFlights() {
-        return flights.size();
+        return numFlights;
     }
-    
+
+    /** Versión guardada; el repositorio la incrementa en cada escritura. */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
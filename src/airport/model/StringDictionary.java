@@ -0,0 +1,56 @@
+package airport.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario global de cadenas para atributos de baja cardinalidad (país,
+ * ciudad, aerolínea, marca, modelo). Cada valor distinto se guarda una sola
+ * vez y las entidades almacenan su código entero, así que un filtro por
+ * igualdad compara enteros en lugar de cadenas.
+ */
+public final class StringDictionary {
+
+    /** Código que {@link #lookup(String)} devuelve para valores nunca vistos. */
+    public static final int ABSENT = -1;
+    /** Código reservado para {@code null}. */
+    public static final int NULL_CODE = 0;
+
+    private static final ConcurrentHashMap<String, Integer> CODES = new ConcurrentHashMap<>();
+    private static volatile String[] values = new String[64];
+    private static int size = 1; // el código 0 es null
+
+    private StringDictionary() {
+    }
+
+    /** Devuelve el código de {@code value}, registrándolo si es nuevo. */
+    public static int encode(String value) {
+        if (value == null) return NULL_CODE;
+        Integer code = CODES.get(value);
+        return code != null ? code : register(value);
+    }
+
+    /** Código de {@code value} sin registrarlo; {@link #ABSENT} si no existe. */
+    public static int lookup(String value) {
+        if (value == null) return NULL_CODE;
+        Integer code = CODES.get(value);
+        return code != null ? code : ABSENT;
+    }
+
+    public static String decode(int code) {
+        return values[code];
+    }
+
+    private static synchronized int register(String value) {
+        Integer code = CODES.get(value);
+        if (code != null) return code;
+        String[] table = values;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+        }
+        table[size] = value;
+        values = table; // publica el valor antes que el código
+        CODES.put(value, size);
+        return size++;
+    }
+}
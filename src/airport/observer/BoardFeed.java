@@ -0,0 +1,109 @@
+package airport.observer;
+
+import airport.model.Flight;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Avisos para los tableros de salidas y llegadas de cada aeropuerto. Se
+ * registra como {@link Observer} del controller de vuelos y, por cada cambio,
+ * avisa solo a los tableros de los aeropuertos que el vuelo toca, antes o
+ * después del cambio (un vuelo borrado sale del tablero donde estaba), para
+ * que una pantalla se refresque sin consultar periódicamente.
+ * <p>
+ * Los avisos se entregan en orden en el {@link Executor} dado (p. ej.
+ * {@code EventQueue::invokeLater} para una pantalla Swing), nunca en el hilo
+ * del controller.
+ */
+public class BoardFeed implements Observer {
+
+    /** Recibe los vuelos que cambiaron en el tablero de un aeropuerto. */
+    public interface Listener {
+        void boardChanged(String locationId, ChangeType type, List<String> flightIds);
+    }
+
+    private final Function<String, Optional<Flight>> flights;
+    private final Executor executor;
+    private final Map<String, String[]> endpoints = new HashMap<>(); // vuelo → {salida, llegada}
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    /** Entrega los avisos en un hilo propio. */
+    public BoardFeed(Function<String, Optional<Flight>> flights) {
+        this(flights, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "board-feed");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * @param flights  busca el vuelo vigente por ID
+     * @param executor dónde se entregan los avisos; debe respetar el orden
+     */
+    public BoardFeed(Function<String, Optional<Flight>> flights, Executor executor) {
+        this.flights = Objects.requireNonNull(flights);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public void subscribe(String locationId, Listener listener) {
+        if (locationId != null && listener != null) {
+            listeners.computeIfAbsent(locationId, id -> new CopyOnWriteArrayList<>()).add(listener);
+        }
+    }
+
+    public void unsubscribe(String locationId, Listener listener) {
+        List<Listener> subscribed = listeners.get(locationId);
+        if (subscribed != null) subscribed.remove(listener);
+    }
+
+    /** Sin IDs no se sabe qué tableros cambiaron; solo se atienden eventos con IDs. */
+    @Override
+    public void update(String dataType) {
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        if (!"flight".equals(event.getDataType()) || event.getType() == ChangeType.MANIFEST_CHANGED)
+            return;
+        Map<String, List<String>> byLocation = new LinkedHashMap<>();
+        synchronized (this) {
+            for (String id : event.getIds()) {
+                String[] before = endpoints.get(id);
+                String[] after = flights.apply(id)
+                        .map(f -> new String[] {
+                                f.getDepartureLocation().getAirportId(),
+                                f.getArrivalLocation().getAirportId()})
+                        .orElse(null);
+                if (after == null) endpoints.remove(id);
+                else endpoints.put(id, after);
+                for (String[] pair : new String[][] {before, after}) {
+                    if (pair == null) continue;
+                    for (String location : pair) {
+                        List<String> ids = byLocation.computeIfAbsent(location, l -> new ArrayList<>());
+                        if (!ids.contains(id)) ids.add(id);
+                    }
+                }
+            }
+            // queued while holding the lock so deliveries keep the order of the events
+            for (Map.Entry<String, List<String>> e : byLocation.entrySet()) {
+                List<Listener> subscribed = listeners.get(e.getKey());
+                if (subscribed == null || subscribed.isEmpty()) continue;
+                List<String> ids = List.copyOf(e.getValue());
+                for (Listener listener : subscribed) {
+                    executor.execute(() -> listener.boardChanged(e.getKey(), event.getType(), ids));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package airport.observer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evento de cambio emitido por los controllers: indica el tipo de dato
+ * afectado ("passenger", "plane", "location", "flight"), la operación y
+ * los IDs de las entidades modificadas, para que los observers puedan
+ * actualizar solo esas filas en vez de recargar todo.
+ */
+public class ChangeEvent {
+    private final String dataType;
+    private final ChangeType type;
+    private final List<String> ids;
+
+    private ChangeEvent(String dataType, ChangeType type, List<String> ids) {
+        this.dataType = dataType;
+        this.type     = type;
+        this.ids      = ids;
+    }
+
+    public static ChangeEvent of(String dataType, ChangeType type, String... ids) {
+        return new ChangeEvent(dataType, type,
+                Collections.unmodifiableList(Arrays.asList(ids.clone())));
+    }
+
+    public static ChangeEvent of(String dataType, ChangeType type, Collection<String> ids) {
+        return new ChangeEvent(dataType, type, List.copyOf(ids));
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return dataType + " " + type + " " + ids;
+    }
+}
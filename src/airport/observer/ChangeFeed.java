@@ -0,0 +1,313 @@
+package airport.observer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed central de cambios para consumidores externos (exportadores, réplicas,
+ * notificaciones). Se registra como {@link Observer} en los controllers y
+ * republica cada {@link ChangeEvent} como un {@link ChangeRecord} numerado.
+ *
+ * Cada suscriptor tiene su propio buffer acotado y recibe registros solo según
+ * la demanda que pide con {@code request(n)}, en un hilo del {@link Executor}.
+ * Si un suscriptor se atrasa se aplica su {@link OverflowPolicy}; con DROP o
+ * DISCONNECT el controller que emitió el cambio nunca se queda esperando. Con
+ * BLOCK espera como mucho {@code maxBlockMillis} por cada suscriptor lleno,
+ * pero fuera del candado del feed: los demás controllers siguen publicando y
+ * el buffer de ese suscriptor puede pasarse de su capacidad en como mucho un
+ * registro por publicador en espera.
+ */
+public class ChangeFeed implements Observer, Flow.Publisher<ChangeRecord>, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_MAX_BLOCK_MILLIS = 50;
+
+    private final int defaultCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final long maxBlockNanos;
+    private final Executor executor;
+    private final List<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean closed;
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    public ChangeFeed(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, DEFAULT_MAX_BLOCK_MILLIS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param capacity       tamaño del buffer por suscriptor
+     * @param policy         política por defecto para suscriptores lentos
+     * @param maxBlockMillis espera máxima de la política BLOCK antes de descartar
+     * @param executor       donde se ejecuta la entrega a los suscriptores
+     */
+    public ChangeFeed(int capacity, OverflowPolicy policy, long maxBlockMillis, Executor executor) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity debe ser > 0");
+        this.defaultCapacity = capacity;
+        this.defaultPolicy   = Objects.requireNonNull(policy);
+        this.maxBlockNanos   = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxBlockMillis));
+        this.executor        = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public void update(String dataType) {
+        onChange(ChangeEvent.of(dataType, ChangeType.UPDATED));
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Asigna la siguiente secuencia y encola el registro para cada suscriptor
+     * con el candado del feed, para que todos vean las secuencias en orden. La
+     * espera de BLOCK por suscriptores llenos se hace después, sin el candado.
+     */
+    public void publish(ChangeEvent event) {
+        if (event == null) return;
+        ChangeRecord record;
+        List<FeedSubscription> full = new ArrayList<>(0);
+        synchronized (this) {
+            if (closed) return;
+            record = new ChangeRecord(sequence.incrementAndGet(), event);
+            for (FeedSubscription s : subscriptions) {
+                if (s.offer(record)) full.add(s);
+            }
+        }
+        for (FeedSubscription s : full) {
+            s.awaitSpace(record);
+        }
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ChangeRecord> subscriber) {
+        subscribe(subscriber, defaultCapacity, defaultPolicy);
+    }
+
+    public void subscribe(Flow.Subscriber<? super ChangeRecord> subscriber,
+                          int capacity,
+                          OverflowPolicy policy) {
+        Objects.requireNonNull(subscriber);
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity debe ser > 0");
+        FeedSubscription s = new FeedSubscription(subscriber, capacity, Objects.requireNonNull(policy));
+        subscriber.onSubscribe(s);
+        // close() holds the same lock, so it either sees this subscription or we see closed
+        synchronized (this) {
+            if (!closed) {
+                subscriptions.add(s);
+                return;
+            }
+        }
+        s.complete();
+    }
+
+    /** Última secuencia publicada (0 si todavía no hubo cambios). */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /** Deja de aceptar cambios y entrega onComplete a cada suscriptor tras vaciar su buffer. */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (FeedSubscription s : subscriptions) {
+            s.complete();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Estado de un suscriptor: buffer acotado, demanda pendiente y un bucle de
+     * entrega que corre como mucho en un hilo a la vez (contador wip).
+     */
+    private final class FeedSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super ChangeRecord> subscriber;
+        private final int capacity;
+        private final OverflowPolicy policy;
+        private final ArrayDeque<ChangeRecord> buffer = new ArrayDeque<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private long demand;
+        private boolean completed;
+        private Throwable pendingError;
+        private volatile boolean cancelled;
+
+        FeedSubscription(Flow.Subscriber<? super ChangeRecord> subscriber,
+                         int capacity,
+                         OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.capacity   = capacity;
+            this.policy     = policy;
+        }
+
+        /**
+         * Encola sin esperar. Devuelve true si el registro quedó por encima de
+         * la capacidad con BLOCK; el publicador debe llamar a
+         * {@link #awaitSpace} fuera del candado del feed.
+         */
+        boolean offer(ChangeRecord record) {
+            boolean disconnect = false, overflow = false;
+            synchronized (this) {
+                if (cancelled || completed || pendingError != null) return false;
+                if (buffer.size() >= capacity) {
+                    switch (policy) {
+                        case BLOCK:
+                            buffer.add(record);
+                            overflow = true;
+                            break;
+                        case DISCONNECT:
+                            buffer.clear();
+                            pendingError = new IllegalStateException(
+                                    "Suscriptor desconectado: buffer lleno en la secuencia " + record.getSequence());
+                            disconnect = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                if (!disconnect && !overflow && buffer.size() < capacity) {
+                    buffer.add(record);
+                }
+            }
+            if (disconnect) {
+                subscriptions.remove(this);
+            }
+            signal();
+            return overflow;
+        }
+
+        /**
+         * Espera como mucho {@code maxBlockNanos} a que el buffer vuelva a su
+         * capacidad; si no, descarta {@code record} si sigue sin entregar.
+         * Quitarlo del buffer no altera el orden de los demás.
+         */
+        void awaitSpace(ChangeRecord record) {
+            long deadline = System.nanoTime() + maxBlockNanos;
+            synchronized (this) {
+                try {
+                    while (buffer.size() > capacity && !cancelled) {
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0) break;
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (buffer.size() <= capacity) return;
+                for (Iterator<ChangeRecord> it = buffer.descendingIterator(); it.hasNext(); ) {
+                    if (it.next() == record) {
+                        it.remove();
+                        return;
+                    }
+                }
+            }
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    pendingError = new IllegalArgumentException("request debe ser > 0");
+                } else {
+                    demand += n;
+                    if (demand < 0) demand = Long.MAX_VALUE;
+                }
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                buffer.clear();
+                notifyAll();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    cancel();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    ChangeRecord next;
+                    Throwable error = null;
+                    boolean done = false;
+                    synchronized (this) {
+                        if (cancelled) return;
+                        if (pendingError != null) {
+                            error = pendingError;
+                            cancelled = true;
+                            next = null;
+                        } else if (buffer.isEmpty()) {
+                            done = completed;
+                            if (done) cancelled = true;
+                            next = null;
+                        } else if (demand == 0) {
+                            next = null;
+                        } else {
+                            next = buffer.poll();
+                            demand--;
+                            notifyAll();
+                        }
+                    }
+                    if (error != null) {
+                        subscriber.onError(error);
+                        return;
+                    }
+                    if (done) {
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (next == null) break;
+                    try {
+                        subscriber.onNext(next);
+                    } catch (Throwable t) {
+                        cancel();
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package airport.observer;
+
+/**
+ * Registro del feed de cambios: un {@link ChangeEvent} con su número de secuencia.
+ * Las secuencias son crecientes y sin huecos en el origen, así que un consumidor
+ * puede detectar registros perdidos (política DROP) comparando secuencias.
+ */
+public class ChangeRecord {
+    private final long sequence;
+    private final ChangeEvent event;
+
+    public ChangeRecord(long sequence, ChangeEvent event) {
+        this.sequence = sequence;
+        this.event    = event;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeEvent getEvent() {
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + event;
+    }
+}
@@ -0,0 +1,13 @@
+package airport.observer;
+
+/**
+ * Tipo de operación que originó un {@link ChangeEvent}.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELAYED,
+    MANIFEST_CHANGED,
+    DELETED,
+    CANCELLED
+}
@@ -2,4 +2,12 @@ package airport.observer;
 
 public interface Observer {
     void update(String dataType);
-}
\ No newline at end of file
+
+    /**
+     * Recibe un cambio con la operación y los IDs afectados.
+     * Por defecto se comporta como {@link #update(String)}.
+     */
+    default void onChange(ChangeEvent event) {
+        update(event.getDataType());
+    }
+}
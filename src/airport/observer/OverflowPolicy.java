@@ -0,0 +1,13 @@
+package airport.observer;
+
+/**
+ * Qué hace el {@link ChangeFeed} cuando el buffer de un suscriptor lento está lleno.
+ */
+public enum OverflowPolicy {
+    /** Descarta el registro nuevo para ese suscriptor y sigue. */
+    DROP,
+    /** Espera a que haya espacio, como máximo el tiempo configurado; luego descarta. */
+    BLOCK,
+    /** Cancela la suscripción y le entrega onError al suscriptor. */
+    DISCONNECT
+}
@@ -4,4 +4,5 @@ public interface Subject {
     void registerObserver(Observer o);
     void removeObserver(Observer o);
     void notifyObservers(String dataType);
+    void notifyObservers(ChangeEvent event);
 }
@@ -0,0 +1,64 @@
+package airport.operations;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Copia inmutable y consistente de todos los agregados en un mismo instante,
+ * para exportar o pintar un tablero sin ver cambios a medias.
+ */
+public class AggregateSnapshot {
+
+    private final Map<String, Map<LocalDate, Long>> departuresPerDay;
+    private final Map<String, Map<LocalDate, Long>> arrivalsPerDay;
+    private final Map<String, Long> passengersPerRoute;
+    private final Map<String, Double> loadFactorPerAirline;
+    private final Map<String, Long> bookingsPerCountry;
+
+    AggregateSnapshot(Map<String, Map<LocalDate, Long>> departuresPerDay,
+                      Map<String, Map<LocalDate, Long>> arrivalsPerDay,
+                      Map<String, Long> passengersPerRoute,
+                      Map<String, Double> loadFactorPerAirline,
+                      Map<String, Long> bookingsPerCountry) {
+        this.departuresPerDay = perDay(departuresPerDay);
+        this.arrivalsPerDay = perDay(arrivalsPerDay);
+        this.passengersPerRoute = Collections.unmodifiableMap(passengersPerRoute);
+        this.loadFactorPerAirline = Collections.unmodifiableMap(loadFactorPerAirline);
+        this.bookingsPerCountry = Collections.unmodifiableMap(bookingsPerCountry);
+    }
+
+    /** Copia de solo lectura también en cada mapa por día, no solo en el de aeropuertos. */
+    private static Map<String, Map<LocalDate, Long>> perDay(Map<String, Map<LocalDate, Long>> source) {
+        Map<String, Map<LocalDate, Long>> copy = new LinkedHashMap<>();
+        source.forEach((airport, days) -> copy.put(airport, Collections.unmodifiableMap(new TreeMap<>(days))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /** Aeropuerto → día → vuelos que salen. */
+    public Map<String, Map<LocalDate, Long>> getDeparturesPerDay() {
+        return departuresPerDay;
+    }
+
+    /** Aeropuerto → día → vuelos que llegan. */
+    public Map<String, Map<LocalDate, Long>> getArrivalsPerDay() {
+        return arrivalsPerDay;
+    }
+
+    /** Ruta ("BOG-MDE") → pasajeros reservados. */
+    public Map<String, Long> getPassengersPerRoute() {
+        return passengersPerRoute;
+    }
+
+    /** Aerolínea → asientos reservados / asientos ofrecidos. */
+    public Map<String, Double> getLoadFactorPerAirline() {
+        return loadFactorPerAirline;
+    }
+
+    /** País del pasajero → reservas. */
+    public Map<String, Long> getBookingsPerCountry() {
+        return bookingsPerCountry;
+    }
+}
@@ -0,0 +1,46 @@
+package airport.operations;
+
+import java.time.LocalDateTime;
+
+/**
+ * Puerta asignada a un movimiento (salida o llegada) de un vuelo en un
+ * aeropuerto, con el intervalo durante el cual la ocupa.
+ */
+public class GateAssignment {
+
+    private final String flightId;
+    private final boolean arrival;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final int gate;
+
+    public GateAssignment(String flightId, boolean arrival, LocalDateTime start, LocalDateTime end, int gate) {
+        this.flightId = flightId;
+        this.arrival = arrival;
+        this.start = start;
+        this.end = end;
+        this.gate = gate;
+    }
+
+    public String getFlightId() {
+        return flightId;
+    }
+
+    /** {@code true} si el vuelo llega al aeropuerto, {@code false} si sale de él. */
+    public boolean isArrival() {
+        return arrival;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /** Número de puerta, desde 1. */
+    public int getGate() {
+        return gate;
+    }
+}
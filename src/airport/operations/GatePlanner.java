@@ -0,0 +1,228 @@
+package airport.operations;
+
+import airport.model.Flight;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
+import airport.observer.Observer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Asignación de puertas por aeropuerto. Cada salida ocupa una puerta desde
+ * {@code minutesBeforeDeparture} antes de salir y cada llegada desde que
+ * aterriza hasta {@code minutesAfterArrival} después. Las puertas se asignan
+ * recorriendo los movimientos por hora de inicio con un montículo de puertas
+ * ocupadas ordenado por fin (coloreo voraz de intervalos), lo que usa el
+ * mínimo de puertas posible.
+ * <p>
+ * Se registra como {@link Observer} del controller de vuelos. Un cambio solo
+ * marca el aeropuerto desde el instante afectado; al consultar se reconstruye
+ * el estado del recorrido en ese instante y se reasigna de ahí en adelante,
+ * así que las puertas anteriores al cambio no se mueven.
+ */
+public class GatePlanner implements Observer {
+
+    /** Ocupación de una puerta por un vuelo; intervalo semiabierto [start, end). */
+    private static final class Movement {
+        final String flightId;
+        final boolean arrival;
+        final String locationId;
+        final long start;
+        final long end;
+        int gate;
+
+        Movement(String flightId, boolean arrival, String locationId, long start, long end) {
+            this.flightId = flightId;
+            this.arrival = arrival;
+            this.locationId = locationId;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean sameAs(Movement other) {
+            return other != null && start == other.start && end == other.end
+                    && locationId.equals(other.locationId);
+        }
+    }
+
+    private static final Comparator<Movement> BY_START = Comparator
+            .comparingLong((Movement m) -> m.start)
+            .thenComparing(m -> m.flightId)
+            .thenComparing(m -> m.arrival);
+
+    /** Movimientos de un aeropuerto ordenados por inicio. */
+    private static final class Airport {
+        final List<Movement> movements = new ArrayList<>();
+        long dirtyFrom = Long.MAX_VALUE; // primer instante sin asignar
+        int gates;
+    }
+
+    private final Function<String, Optional<Flight>> flights;
+    private final int minutesBeforeDeparture;
+    private final int minutesAfterArrival;
+    private final Map<String, Airport> airports = new HashMap<>();
+    private final Map<String, Movement[]> byFlight = new HashMap<>(); // {salida, llegada}
+
+    /**
+     * @param flights                busca el vuelo vigente por ID
+     * @param minutesBeforeDeparture minutos de puerta antes de cada salida
+     * @param minutesAfterArrival    minutos de puerta después de cada llegada
+     */
+    public GatePlanner(Function<String, Optional<Flight>> flights,
+                       int minutesBeforeDeparture,
+                       int minutesAfterArrival) {
+        if (minutesBeforeDeparture <= 0 || minutesAfterArrival <= 0)
+            throw new IllegalArgumentException("Los tiempos de puerta deben ser > 0");
+        this.flights = flights;
+        this.minutesBeforeDeparture = minutesBeforeDeparture;
+        this.minutesAfterArrival = minutesAfterArrival;
+    }
+
+    /** Sin IDs no se sabe qué vuelo cambió; solo se atienden eventos con IDs. */
+    @Override
+    public void update(String dataType) {
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        if (!"flight".equals(event.getDataType()) || event.getType() == ChangeType.MANIFEST_CHANGED)
+            return;
+        synchronized (this) {
+            for (String id : event.getIds()) {
+                refresh(id);
+            }
+        }
+    }
+
+    /** Asignación del aeropuerto en orden de inicio. */
+    public synchronized List<GateAssignment> plan(String locationId) {
+        Airport airport = airports.get(locationId);
+        if (airport == null) return Collections.emptyList();
+        assign(airport);
+        List<GateAssignment> result = new ArrayList<>(airport.movements.size());
+        for (Movement m : airport.movements) {
+            result.add(new GateAssignment(m.flightId, m.arrival,
+                    toDate(m.start), toDate(m.end), m.gate + 1));
+        }
+        return result;
+    }
+
+    /** Puertas necesarias en el aeropuerto: el máximo de movimientos simultáneos. */
+    public synchronized int gatesNeeded(String locationId) {
+        Airport airport = airports.get(locationId);
+        if (airport == null) return 0;
+        assign(airport);
+        return airport.gates;
+    }
+
+    private void refresh(String flightId) {
+        Movement[] old = byFlight.get(flightId);
+        Optional<Flight> current = flights.apply(flightId);
+        Movement[] updated = current.map(this::movementsOf).orElse(null);
+        for (int i = 0; i < 2; i++) {
+            Movement before = old == null ? null : old[i];
+            Movement after = updated == null ? null : updated[i];
+            if (after != null && after.sameAs(before)) {
+                updated[i] = before; // keeps its gate
+                continue;
+            }
+            if (before != null) remove(before);
+            if (after != null) insert(after);
+        }
+        if (updated == null) {
+            byFlight.remove(flightId);
+        } else {
+            byFlight.put(flightId, updated);
+        }
+    }
+
+    private Movement[] movementsOf(Flight f) {
+        long departure = f.getDepartureMinute(), arrival = f.getArrivalMinute();
+        return new Movement[] {
+                new Movement(f.getId(), false, f.getDepartureLocation().getAirportId(),
+                        departure - minutesBeforeDeparture, departure),
+                new Movement(f.getId(), true, f.getArrivalLocation().getAirportId(),
+                        arrival, arrival + minutesAfterArrival)
+        };
+    }
+
+    private void insert(Movement m) {
+        Airport airport = airports.computeIfAbsent(m.locationId, id -> new Airport());
+        int index = Collections.binarySearch(airport.movements, m, BY_START);
+        airport.movements.add(-index - 1, m);
+        airport.dirtyFrom = Math.min(airport.dirtyFrom, m.start);
+    }
+
+    private void remove(Movement m) {
+        Airport airport = airports.get(m.locationId);
+        int index = Collections.binarySearch(airport.movements, m, BY_START);
+        airport.movements.remove(index);
+        airport.dirtyFrom = Math.min(airport.dirtyFrom, m.start);
+    }
+
+    /**
+     * Reasigna desde el primer movimiento que empieza en {@code dirtyFrom} o
+     * después. Antes de seguir se reconstruye el estado del recorrido en ese
+     * punto: puertas ocupadas (las de movimientos anteriores que aún no han
+     * terminado) y puertas libres, así que el resultado es el mismo que
+     * recorrer todo desde el principio.
+     */
+    private void assign(Airport airport) {
+        if (airport.dirtyFrom == Long.MAX_VALUE) return;
+        List<Movement> movements = airport.movements;
+        int from = firstStartingAt(movements, airport.dirtyFrom);
+        long resumeAt = from < movements.size() ? movements.get(from).start : Long.MAX_VALUE;
+
+        PriorityQueue<Movement> busy = new PriorityQueue<>(Comparator.comparingLong((Movement m) -> m.end));
+        BitSet occupied = new BitSet();
+        int gates = 0;
+        for (int i = 0; i < from; i++) {
+            Movement m = movements.get(i);
+            gates = Math.max(gates, m.gate + 1);
+            if (m.end > resumeAt) {
+                busy.add(m);
+                occupied.set(m.gate);
+            }
+        }
+        PriorityQueue<Integer> free = new PriorityQueue<>();
+        for (int g = occupied.nextClearBit(0); g < gates; g = occupied.nextClearBit(g + 1)) {
+            free.add(g);
+        }
+
+        for (int i = from; i < movements.size(); i++) {
+            Movement m = movements.get(i);
+            while (!busy.isEmpty() && busy.peek().end <= m.start) {
+                free.add(busy.poll().gate);
+            }
+            m.gate = free.isEmpty() ? gates++ : free.poll();
+            busy.add(m);
+        }
+        airport.gates = gates;
+        airport.dirtyFrom = Long.MAX_VALUE;
+    }
+
+    private static int firstStartingAt(List<Movement> movements, long minute) {
+        int lo = 0, hi = movements.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (movements.get(mid).start < minute) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static LocalDateTime toDate(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,184 @@
+package airport.operations;
+
+import airport.model.Flight;
+import airport.model.StringDictionary;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
+import airport.observer.Observer;
+import airport.storage.FlightRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Puntualidad de salidas por ruta, aeropuerto de salida y aerolínea en la
+ * última hora, el último día y los últimos 30 días ({@link TimeWindow}).
+ * <p>
+ * Un vuelo cuenta cuando el reloj pasa su salida actual, con el retraso que
+ * acumule respecto a la programada; es puntual si no supera el umbral. Se
+ * registra como {@link Observer} del controller de vuelos: por cada vuelo ya
+ * salido recuerda lo que aportó y ante un cambio resta ese aporte y suma el
+ * nuevo. Cada ámbito guarda sus ventanas en anillos ({@link SlidingCounter}),
+ * así que cada evento y cada lectura son O(1) por ventana.
+ */
+public class OnTimePerformance implements Observer {
+
+    /** Ventana más larga; lo que queda fuera ya no aporta a ninguna. */
+    private static final TimeWindow LONGEST = TimeWindow.THIRTY_DAYS;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    /** Lo que aporta una salida a los contadores. */
+    private static final class Departure {
+        final String id;
+        final String route;
+        final String origin;
+        final int airline;
+        final long minute;
+        final long delay;
+
+        Departure(Flight f) {
+            this.id = f.getId();
+            this.origin = f.getDepartureLocation().getAirportId();
+            this.route = route(origin, f.getArrivalLocation().getAirportId());
+            this.airline = f.getPlane().getAirlineCode();
+            this.minute = f.getDepartureMinute();
+            this.delay = f.getDelayMinutes();
+        }
+    }
+
+    private final FlightRepository flights;
+    private final LongSupplier clock;
+    private final int onTimeThreshold;
+
+    private long now; // las salidas hasta este minuto ya están registradas
+    private final Map<String, Departure> departed = new HashMap<>();
+    // departed by day of departure, to forget whole days once they leave the longest window
+    private final NavigableMap<Long, Map<String, Departure>> byDay = new TreeMap<>();
+    private final Map<String, SlidingCounter[]> perRoute = new HashMap<>();
+    private final Map<String, SlidingCounter[]> perAirport = new HashMap<>();
+    private final Map<Integer, SlidingCounter[]> perAirline = new HashMap<>();
+
+    /** Con el reloj del sistema, en hora local como las fechas de los vuelos. */
+    public OnTimePerformance(FlightRepository flights, int onTimeThresholdMinutes) {
+        this(flights, () -> Math.floorDiv(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC), 60),
+                onTimeThresholdMinutes);
+    }
+
+    /**
+     * @param clock                  minuto de época actual
+     * @param onTimeThresholdMinutes retraso máximo para contar como puntual
+     */
+    public OnTimePerformance(FlightRepository flights, LongSupplier clock, int onTimeThresholdMinutes) {
+        if (onTimeThresholdMinutes < 0)
+            throw new IllegalArgumentException("Umbral de puntualidad negativo: " + onTimeThresholdMinutes);
+        this.flights = Objects.requireNonNull(flights);
+        this.clock = Objects.requireNonNull(clock);
+        this.onTimeThreshold = onTimeThresholdMinutes;
+        // the first advance picks up the departures still inside the longest window
+        this.now = LONGEST.start(clock.getAsLong()) - 1;
+    }
+
+    /** Sin IDs no se sabe qué cambió; solo se atienden eventos con IDs. */
+    @Override
+    public void update(String dataType) {
+    }
+
+    @Override
+    public synchronized void onChange(ChangeEvent event) {
+        // manifest changes do not move departures
+        if (!"flight".equals(event.getDataType()) || event.getType() == ChangeType.MANIFEST_CHANGED) return;
+        advance();
+        for (String id : event.getIds()) refresh(id);
+    }
+
+    public synchronized OnTimeStats getRouteStats(String fromId, String toId, TimeWindow window) {
+        return stats(perRoute.get(route(fromId, toId)), window);
+    }
+
+    public synchronized OnTimeStats getAirportStats(String airportId, TimeWindow window) {
+        return stats(perAirport.get(airportId), window);
+    }
+
+    public synchronized OnTimeStats getAirlineStats(String airline, TimeWindow window) {
+        return stats(perAirline.get(StringDictionary.lookup(airline)), window);
+    }
+
+    private OnTimeStats stats(SlidingCounter[] counters, TimeWindow window) {
+        advance();
+        if (counters == null) return new OnTimeStats(0, 0, 0);
+        return counters[window.ordinal()].stats(now);
+    }
+
+    /** Registra las salidas entre el último minuto visto y ahora, y olvida las caducadas. */
+    private void advance() {
+        long current = clock.getAsLong();
+        if (current <= now) return;
+        long from = now + 1;
+        now = current;
+        for (Flight f : flights.findDepartures(from, current)) refresh(f);
+        // the day holding the window start may keep a few expired departures until it ends
+        Map<Long, Map<String, Departure>> expired = byDay.headMap(day(LONGEST.start(current)), false);
+        for (Map<String, Departure> day : expired.values()) departed.keySet().removeAll(day.keySet());
+        expired.clear();
+    }
+
+    private void refresh(String id) {
+        Flight f = flights.findById(id).orElse(null);
+        if (f == null) {
+            forget(id);
+        } else {
+            refresh(f);
+        }
+    }
+
+    private void refresh(Flight f) {
+        forget(f.getId());
+        // a flight whose departure is still ahead counts once the clock reaches it
+        if (f.getDepartureMinute() > now) return;
+        Departure current = new Departure(f);
+        apply(current, 1);
+        departed.put(current.id, current);
+        byDay.computeIfAbsent(day(current.minute), d -> new HashMap<>()).put(current.id, current);
+    }
+
+    /** Resta el aporte de la salida registrada con ese ID, si la hay. */
+    private void forget(String id) {
+        Departure old = departed.remove(id);
+        if (old == null) return;
+        apply(old, -1);
+        Map<String, Departure> day = byDay.get(day(old.minute));
+        day.remove(id);
+        if (day.isEmpty()) byDay.remove(day(old.minute));
+    }
+
+    private void apply(Departure d, int sign) {
+        boolean punctual = d.delay <= onTimeThreshold;
+        for (SlidingCounter[] counters : new SlidingCounter[][]{
+                counters(perRoute, d.route), counters(perAirport, d.origin), counters(perAirline, d.airline)}) {
+            for (SlidingCounter c : counters) c.add(d.minute, punctual, d.delay, sign);
+        }
+    }
+
+    private static <K> SlidingCounter[] counters(Map<K, SlidingCounter[]> byKey, K key) {
+        return byKey.computeIfAbsent(key, k -> {
+            TimeWindow[] windows = TimeWindow.values();
+            SlidingCounter[] counters = new SlidingCounter[windows.length];
+            for (int i = 0; i < windows.length; i++) counters[i] = new SlidingCounter(windows[i]);
+            return counters;
+        });
+    }
+
+    private static long day(long minute) {
+        return Math.floorDiv(minute, MINUTES_PER_DAY);
+    }
+
+    private static String route(String fromId, String toId) {
+        return fromId + "-" + toId;
+    }
+}
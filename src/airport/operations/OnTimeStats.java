@@ -0,0 +1,39 @@
+package airport.operations;
+
+/** Puntualidad de un conjunto de salidas dentro de una ventana. */
+public class OnTimeStats {
+
+    private final long flights;
+    private final long onTime;
+    private final long delayMinutes;
+
+    OnTimeStats(long flights, long onTime, long delayMinutes) {
+        this.flights = flights;
+        this.onTime = onTime;
+        this.delayMinutes = delayMinutes;
+    }
+
+    public long getFlights() {
+        return flights;
+    }
+
+    public long getOnTimeFlights() {
+        return onTime;
+    }
+
+    /** Porcentaje (0-100) de salidas a tiempo, o 0 si no hubo salidas. */
+    public double getOnTimePercentage() {
+        return flights == 0 ? 0 : 100.0 * onTime / flights;
+    }
+
+    /** Retraso medio en minutos, contando también los vuelos a tiempo. */
+    public double getAverageDelayMinutes() {
+        return flights == 0 ? 0 : (double) delayMinutes / flights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d vuelos, %.1f%% a tiempo, %.1f min de retraso medio",
+                flights, getOnTimePercentage(), getAverageDelayMinutes());
+    }
+}
@@ -0,0 +1,196 @@
+package airport.operations;
+
+import airport.model.Flight;
+import airport.model.Passenger;
+import airport.model.StringDictionary;
+import airport.observer.ChangeEvent;
+import airport.observer.Observer;
+import airport.storage.BookingIndex;
+import airport.storage.Repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Agregados materializados para tableros operativos: vuelos por aeropuerto y
+ * día, pasajeros por ruta, ocupación por aerolínea y reservas por país.
+ * <p>
+ * Se registra como {@link Observer} de los controllers de vuelos y pasajeros.
+ * Por cada entidad recuerda lo que aportó a los contadores; ante un cambio
+ * vuelve a leerla, resta el aporte anterior y suma el nuevo, así que cada
+ * evento cuesta O(1) por ID y da igual si llega repetido o desordenado. Las
+ * lecturas son O(1) y {@link #snapshot()} copia todo bajo el mismo candado.
+ */
+public class OperationalAggregates implements Observer {
+
+    private static final int DEPARTURES = 0, ARRIVALS = 1;
+    private static final int BOOKED = 0, OFFERED = 1;
+
+    /** Aporte de un vuelo a los contadores. */
+    private static final class FlightShare {
+        final String origin;
+        final String destination;
+        final long departureDay;
+        final long arrivalDay;
+        final int airline;
+        final int capacity;
+        final int passengers;
+
+        FlightShare(Flight f, int passengers) {
+            this.origin = f.getDepartureLocation().getAirportId();
+            this.destination = f.getArrivalLocation().getAirportId();
+            this.departureDay = Math.floorDiv(f.getDepartureMinute(), 24 * 60);
+            this.arrivalDay = Math.floorDiv(f.getArrivalMinute(), 24 * 60);
+            this.airline = f.getPlane().getAirlineCode();
+            this.capacity = f.getPlane().getMaxCapacity();
+            this.passengers = passengers;
+        }
+    }
+
+    /** Aporte de un pasajero: su país y cuántas reservas tiene. */
+    private static final class PassengerShare {
+        final int country;
+        final int bookings;
+
+        PassengerShare(int country, int bookings) {
+            this.country = country;
+            this.bookings = bookings;
+        }
+    }
+
+    private final Repository<Flight, String> flights;
+    private final Repository<Passenger, Long> passengers;
+    private final BookingIndex bookings;
+
+    private final Map<String, FlightShare> flightShares = new HashMap<>();
+    private final Map<Long, PassengerShare> passengerShares = new HashMap<>();
+
+    // contadores; cada valor es un arreglo para sumar sin crear objetos
+    private final Map<String, Map<Long, long[]>> movementsPerDay = new HashMap<>(); // {salidas, llegadas}
+    private final Map<String, long[]> passengersPerRoute = new HashMap<>();
+    private final Map<Integer, long[]> seatsPerAirline = new HashMap<>(); // {reservados, ofrecidos}
+    private final Map<Integer, long[]> bookingsPerCountry = new HashMap<>();
+
+    public OperationalAggregates(Repository<Flight, String> flights,
+                                 Repository<Passenger, Long> passengers,
+                                 BookingIndex bookings) {
+        this.flights = Objects.requireNonNull(flights);
+        this.passengers = Objects.requireNonNull(passengers);
+        this.bookings = Objects.requireNonNull(bookings);
+    }
+
+    /** Sin IDs no se sabe qué cambió; solo se atienden eventos con IDs. */
+    @Override
+    public void update(String dataType) {
+    }
+
+    @Override
+    public synchronized void onChange(ChangeEvent event) {
+        if ("flight".equals(event.getDataType())) {
+            for (String id : event.getIds()) refreshFlight(id);
+        } else if ("passenger".equals(event.getDataType())) {
+            for (String id : event.getIds()) refreshPassenger(Long.parseLong(id));
+        }
+    }
+
+    public synchronized long getDepartures(String locationId, LocalDate day) {
+        return movements(locationId, day)[DEPARTURES];
+    }
+
+    public synchronized long getArrivals(String locationId, LocalDate day) {
+        return movements(locationId, day)[ARRIVALS];
+    }
+
+    public synchronized long getPassengersOnRoute(String fromId, String toId) {
+        long[] count = passengersPerRoute.get(route(fromId, toId));
+        return count == null ? 0 : count[0];
+    }
+
+    /** Asientos reservados / ofrecidos en los vuelos de la aerolínea (0 si no tiene). */
+    public synchronized double getLoadFactor(String airline) {
+        long[] seats = seatsPerAirline.get(StringDictionary.lookup(airline));
+        return seats == null || seats[OFFERED] == 0 ? 0 : (double) seats[BOOKED] / seats[OFFERED];
+    }
+
+    public synchronized long getBookingsByCountry(String country) {
+        long[] count = bookingsPerCountry.get(StringDictionary.lookup(country));
+        return count == null ? 0 : count[0];
+    }
+
+    public synchronized AggregateSnapshot snapshot() {
+        Map<String, Map<LocalDate, Long>> departures = new TreeMap<>(), arrivals = new TreeMap<>();
+        movementsPerDay.forEach((location, days) -> days.forEach((day, count) -> {
+            if (count[DEPARTURES] > 0)
+                departures.computeIfAbsent(location, l -> new TreeMap<>())
+                        .put(LocalDate.ofEpochDay(day), count[DEPARTURES]);
+            if (count[ARRIVALS] > 0)
+                arrivals.computeIfAbsent(location, l -> new TreeMap<>())
+                        .put(LocalDate.ofEpochDay(day), count[ARRIVALS]);
+        }));
+        Map<String, Long> routes = new TreeMap<>();
+        passengersPerRoute.forEach((route, count) -> {
+            if (count[0] > 0) routes.put(route, count[0]);
+        });
+        Map<String, Double> loadFactors = new TreeMap<>();
+        seatsPerAirline.forEach((airline, seats) -> {
+            if (seats[OFFERED] > 0)
+                loadFactors.put(StringDictionary.decode(airline), (double) seats[BOOKED] / seats[OFFERED]);
+        });
+        Map<String, Long> countries = new TreeMap<>();
+        bookingsPerCountry.forEach((country, count) -> {
+            if (count[0] > 0) countries.put(StringDictionary.decode(country), count[0]);
+        });
+        return new AggregateSnapshot(departures, arrivals, routes, loadFactors, countries);
+    }
+
+    private void refreshFlight(String id) {
+        FlightShare old = flightShares.remove(id);
+        if (old != null) apply(old, -1);
+        flights.findById(id).ifPresent(f -> {
+            FlightShare current = new FlightShare(f, bookings.countPassengers(id));
+            apply(current, 1);
+            flightShares.put(id, current);
+        });
+    }
+
+    private void refreshPassenger(long id) {
+        PassengerShare old = passengerShares.remove(id);
+        if (old != null) counter(bookingsPerCountry, old.country, 1)[0] -= old.bookings;
+        passengers.findById(id).ifPresent(p -> {
+            PassengerShare current = new PassengerShare(p.getCountryCode(), bookings.countFlights(id));
+            counter(bookingsPerCountry, current.country, 1)[0] += current.bookings;
+            passengerShares.put(id, current);
+        });
+    }
+
+    private void apply(FlightShare s, int sign) {
+        day(s.origin, s.departureDay)[DEPARTURES] += sign;
+        day(s.destination, s.arrivalDay)[ARRIVALS] += sign;
+        counter(passengersPerRoute, route(s.origin, s.destination), 1)[0] += (long) sign * s.passengers;
+        long[] seats = counter(seatsPerAirline, s.airline, 2);
+        seats[BOOKED] += (long) sign * s.passengers;
+        seats[OFFERED] += (long) sign * s.capacity;
+    }
+
+    private long[] day(String locationId, long epochDay) {
+        return movementsPerDay.computeIfAbsent(locationId, l -> new HashMap<>())
+                .computeIfAbsent(epochDay, d -> new long[2]);
+    }
+
+    private long[] movements(String locationId, LocalDate day) {
+        Map<Long, long[]> days = movementsPerDay.get(locationId);
+        long[] count = days == null || day == null ? null : days.get(day.toEpochDay());
+        return count == null ? new long[2] : count;
+    }
+
+    private static <K> long[] counter(Map<K, long[]> counters, K key, int width) {
+        return counters.computeIfAbsent(key, k -> new long[width]);
+    }
+
+    private static String route(String fromId, String toId) {
+        return fromId + "-" + toId;
+    }
+}
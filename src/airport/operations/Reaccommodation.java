@@ -0,0 +1,35 @@
+package airport.operations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de reubicar a los pasajeros de un vuelo cancelado: a qué vuelo
+ * quedó cada pasajero reubicado y quiénes no encontraron lugar.
+ */
+public class Reaccommodation {
+
+    private final String cancelledFlightId;
+    private final Map<Long, String> rebooked;
+    private final List<Long> unaccommodated;
+
+    public Reaccommodation(String cancelledFlightId, Map<Long, String> rebooked, List<Long> unaccommodated) {
+        this.cancelledFlightId = cancelledFlightId;
+        this.rebooked = Collections.unmodifiableMap(rebooked);
+        this.unaccommodated = Collections.unmodifiableList(unaccommodated);
+    }
+
+    public String getCancelledFlightId() {
+        return cancelledFlightId;
+    }
+
+    /** Pasajero → vuelo en el que quedó reservado. */
+    public Map<Long, String> getRebooked() {
+        return rebooked;
+    }
+
+    public List<Long> getUnaccommodated() {
+        return unaccommodated;
+    }
+}
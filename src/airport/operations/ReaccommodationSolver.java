@@ -0,0 +1,73 @@
+package airport.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Busca en paralelo un vuelo alternativo para cada pasajero de un vuelo
+ * cancelado. Las alternativas se prueban en el orden dado (normalmente por
+ * hora de salida) y cada asiento se toma con un compare-and-set sobre el
+ * contador de asientos libres, así que dos pasajeros nunca se quedan con el
+ * mismo asiento ni se supera la capacidad del avión.
+ */
+public class ReaccommodationSolver {
+
+    /** Vuelo alternativo con sus asientos libres y los pasajeros que ya lleva. */
+    public static class Option {
+        private final String flightId;
+        private final AtomicInteger freeSeats;
+        private final Set<Long> booked;
+
+        public Option(String flightId, int freeSeats, Set<Long> booked) {
+            this.flightId = flightId;
+            this.freeSeats = new AtomicInteger(Math.max(0, freeSeats));
+            this.booked = booked;
+        }
+
+        public String getFlightId() {
+            return flightId;
+        }
+
+        boolean claimSeat(long passengerId) {
+            if (booked.contains(passengerId)) return false;
+            while (true) {
+                int seats = freeSeats.get();
+                if (seats == 0) return false;
+                if (freeSeats.compareAndSet(seats, seats - 1)) return true;
+            }
+        }
+    }
+
+    public Reaccommodation solve(String cancelledFlightId, long[] passengers, List<Option> options) {
+        Map<Long, String> assigned = new ConcurrentHashMap<>();
+        Arrays.stream(passengers).parallel().forEach(passengerId -> {
+            for (Option option : options) {
+                if (option.claimSeat(passengerId)) {
+                    assigned.put(passengerId, option.getFlightId());
+                    return;
+                }
+            }
+        });
+
+        // Resultado en el orden del manifiesto original
+        Map<Long, String> rebooked = new LinkedHashMap<>();
+        List<Long> unaccommodated = new ArrayList<>();
+        for (long passengerId : passengers) {
+            String flightId = assigned.get(passengerId);
+            if (flightId != null) {
+                rebooked.put(passengerId, flightId);
+            } else {
+                unaccommodated.add(passengerId);
+            }
+        }
+        return new Reaccommodation(cancelledFlightId, rebooked,
+                unaccommodated.isEmpty() ? Collections.emptyList() : unaccommodated);
+    }
+}
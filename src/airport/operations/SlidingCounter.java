@@ -0,0 +1,77 @@
+package airport.operations;
+
+import java.util.Arrays;
+
+/**
+ * Contadores de una {@link TimeWindow} en un anillo de franjas. Cada franja
+ * recuerda a qué franja de época corresponde; al avanzar el reloj se vacían
+ * las que salen de la ventana y se restan de los totales, así que sumar,
+ * restar y leer son O(1) (avanzar es O(1) amortizado por franja).
+ */
+final class SlidingCounter {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int bucketMinutes;
+    private final long[] stamp;
+    private final int[] flights;
+    private final int[] onTime;
+    private final long[] delay;
+    private long head = EMPTY;
+    private long totalFlights, totalOnTime, totalDelay;
+
+    SlidingCounter(TimeWindow window) {
+        int n = window.getBuckets();
+        this.bucketMinutes = window.getBucketMinutes();
+        this.stamp = new long[n];
+        this.flights = new int[n];
+        this.onTime = new int[n];
+        this.delay = new long[n];
+        Arrays.fill(stamp, EMPTY);
+    }
+
+    /**
+     * Suma ({@code sign} 1) o resta (-1) una salida en {@code minute}. Si su
+     * franja ya salió de la ventana no hace nada: ya no cuenta.
+     */
+    void add(long minute, boolean punctual, long delayMinutes, int sign) {
+        long bucket = Math.floorDiv(minute, bucketMinutes);
+        advanceTo(bucket);
+        int i = index(bucket);
+        if (stamp[i] != bucket) return;
+        flights[i] += sign;
+        totalFlights += sign;
+        if (punctual) {
+            onTime[i] += sign;
+            totalOnTime += sign;
+        }
+        delay[i] += sign * delayMinutes;
+        totalDelay += sign * delayMinutes;
+    }
+
+    OnTimeStats stats(long now) {
+        advanceTo(Math.floorDiv(now, bucketMinutes));
+        return new OnTimeStats(totalFlights, totalOnTime, totalDelay);
+    }
+
+    private void advanceTo(long bucket) {
+        if (head != EMPTY && bucket <= head) return;
+        int n = stamp.length;
+        long steps = head == EMPTY ? n : Math.min(bucket - head, n);
+        for (long b = bucket - steps + 1; b <= bucket; b++) {
+            int i = index(b);
+            totalFlights -= flights[i];
+            totalOnTime -= onTime[i];
+            totalDelay -= delay[i];
+            flights[i] = 0;
+            onTime[i] = 0;
+            delay[i] = 0;
+            stamp[i] = b;
+        }
+        head = bucket;
+    }
+
+    private int index(long bucket) {
+        return Math.floorMod(bucket, stamp.length);
+    }
+}
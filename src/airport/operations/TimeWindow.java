@@ -0,0 +1,33 @@
+package airport.operations;
+
+/**
+ * Ventanas deslizantes de las métricas de puntualidad. Cada una se guarda
+ * como un anillo de {@code buckets} franjas de {@code bucketMinutes}, así
+ * que la ventana avanza de franja en franja y no de minuto en minuto.
+ */
+public enum TimeWindow {
+    HOUR(60, 1),
+    DAY(24, 60),
+    THIRTY_DAYS(30, 24 * 60);
+
+    private final int buckets;
+    private final int bucketMinutes;
+
+    TimeWindow(int buckets, int bucketMinutes) {
+        this.buckets = buckets;
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    /** Primer minuto (de época) que la ventana cubre cuando el reloj marca {@code now}. */
+    long start(long now) {
+        return (Math.floorDiv(now, bucketMinutes) - buckets + 1) * bucketMinutes;
+    }
+}
@@ -0,0 +1,75 @@
+package airport.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Montículo mínimo de eventos codificados en un {@code long}: minuto en los
+ * bits altos, después el tipo y el índice del vuelo. Ordenar por el número
+ * ordena por minuto y, a igual minuto, las llegadas antes que las salidas.
+ * Sin objetos por evento.
+ */
+final class EventQueue {
+
+    static final int ARRIVAL = 0;
+    static final int DEPARTURE = 1;
+
+    private static final int INDEX_BITS = 22;
+    static final int MAX_FLIGHTS = 1 << INDEX_BITS;
+
+    private long[] heap;
+    private int size;
+
+    EventQueue(int capacity) {
+        heap = new long[Math.max(capacity, 16)];
+    }
+
+    void push(long minute, int type, int flight) {
+        long event = (minute << (INDEX_BITS + 1)) | ((long) type << INDEX_BITS) | flight;
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= event) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = event;
+    }
+
+    /** Saca el evento más temprano; leerlo con {@link #minute}, {@link #type} y {@link #flight}. */
+    long pop() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    static long minute(long event) {
+        return event >>> (INDEX_BITS + 1);
+    }
+
+    static int type(long event) {
+        return (int) (event >>> INDEX_BITS) & 1;
+    }
+
+    static int flight(long event) {
+        return (int) event & (MAX_FLIGHTS - 1);
+    }
+}
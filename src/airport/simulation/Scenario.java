@@ -0,0 +1,81 @@
+package airport.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Supuestos de una simulación: retrasos aleatorios que se inyectan en las
+ * salidas (p. ej. "10% de los vuelos que salen de BOG se retrasan 2h") y los
+ * tiempos mínimos de conexión de pasajeros y de rotación de aviones.
+ */
+public class Scenario {
+
+    public static final int DEFAULT_MIN_CONNECTION_MINUTES = 45;
+    public static final int DEFAULT_TURNAROUND_MINUTES = 30;
+    public static final int DEFAULT_ON_TIME_MINUTES = 15;
+
+    /** Con probabilidad {@code probability} la salida se retrasa {@code minutes}. */
+    static final class Delay {
+        final String departureLocationId; // null: cualquier aeropuerto
+        final double probability;
+        final int minutes;
+
+        Delay(String departureLocationId, double probability, int minutes) {
+            this.departureLocationId = departureLocationId;
+            this.probability = probability;
+            this.minutes = minutes;
+        }
+    }
+
+    private final List<Delay> delays = new ArrayList<>();
+    private final int minConnectionMinutes;
+    private final int turnaroundMinutes;
+    private final int onTimeMinutes;
+
+    public Scenario() {
+        this(DEFAULT_MIN_CONNECTION_MINUTES, DEFAULT_TURNAROUND_MINUTES, DEFAULT_ON_TIME_MINUTES);
+    }
+
+    /**
+     * @param minConnectionMinutes tiempo mínimo entre llegar y salir en una conexión
+     * @param turnaroundMinutes    tiempo mínimo en tierra de un avión entre vuelos
+     * @param onTimeMinutes        retraso de llegada que aún cuenta como puntual
+     */
+    public Scenario(int minConnectionMinutes, int turnaroundMinutes, int onTimeMinutes) {
+        if (minConnectionMinutes < 0 || turnaroundMinutes < 0 || onTimeMinutes < 0)
+            throw new IllegalArgumentException("Los tiempos del escenario deben ser ≥ 0");
+        this.minConnectionMinutes = minConnectionMinutes;
+        this.turnaroundMinutes = turnaroundMinutes;
+        this.onTimeMinutes = onTimeMinutes;
+    }
+
+    /**
+     * Añade un retraso aleatorio a las salidas de {@code departureLocationId}
+     * ({@code null} para todos los aeropuertos). Devuelve el mismo escenario.
+     */
+    public Scenario addDelay(String departureLocationId, double probability, int minutes) {
+        if (probability < 0 || probability > 1)
+            throw new IllegalArgumentException("La probabilidad debe estar entre 0 y 1");
+        if (minutes <= 0)
+            throw new IllegalArgumentException("El retraso debe ser > 0");
+        delays.add(new Delay(departureLocationId, probability, minutes));
+        return this;
+    }
+
+    List<Delay> getDelays() {
+        return Collections.unmodifiableList(delays);
+    }
+
+    public int getMinConnectionMinutes() {
+        return minConnectionMinutes;
+    }
+
+    public int getTurnaroundMinutes() {
+        return turnaroundMinutes;
+    }
+
+    public int getOnTimeMinutes() {
+        return onTimeMinutes;
+    }
+}
@@ -0,0 +1,89 @@
+package airport.simulation;
+
+import airport.model.Flight;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Copia compacta e inmutable del horario para simular: un índice por vuelo
+ * y arreglos primitivos con horarios, rotación de cada avión y conexiones de
+ * pasajeros agrupadas por vuelo de salida (formato CSR). Los minutos son
+ * relativos a la primera salida.
+ */
+final class Schedule {
+
+    final int size;
+    final String[] flightIds;
+    final String[] origins;
+    final int[] departure;        // salida programada
+    final int[] duration;         // minutos hasta la llegada
+    final int[] previousOfPlane;  // vuelo anterior del mismo avión o -1
+    final int[] nextOfPlane;      // vuelo siguiente del mismo avión o -1
+    final int[] connectionStart;  // conexiones hacia el vuelo i: [start[i], start[i+1])
+    final int[] connectionInbound;
+    final int[] connectionPassengers;
+    final int totalConnections;
+
+    /** @param flights vuelos en orden de salida */
+    Schedule(List<Flight> flights, Function<String, long[]> passengersOf) {
+        size = flights.size();
+        if (size > EventQueue.MAX_FLIGHTS)
+            throw new IllegalArgumentException("Demasiados vuelos para simular: " + size);
+        flightIds = new String[size];
+        origins = new String[size];
+        departure = new int[size];
+        duration = new int[size];
+        previousOfPlane = new int[size];
+        nextOfPlane = new int[size];
+        String[] destinations = new String[size];
+        long base = size == 0 ? 0 : flights.get(0).getDepartureMinute();
+
+        Map<String, Integer> lastOfPlane = new HashMap<>();
+        Map<Long, List<Integer>> itineraries = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Flight f = flights.get(i);
+            flightIds[i] = f.getId();
+            origins[i] = f.getDepartureLocation().getAirportId();
+            destinations[i] = f.getArrivalLocation().getAirportId();
+            departure[i] = Math.toIntExact(f.getDepartureMinute() - base);
+            duration[i] = (int) (f.getArrivalMinute() - f.getDepartureMinute());
+            Integer previous = lastOfPlane.put(f.getPlane().getId(), i);
+            previousOfPlane[i] = previous == null ? -1 : previous;
+            nextOfPlane[i] = -1;
+            if (previous != null) nextOfPlane[previous] = i;
+            for (long passenger : passengersOf.apply(f.getId())) {
+                itineraries.computeIfAbsent(passenger, p -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // consecutive legs of a passenger that meet at the same airport
+        Map<Long, Integer> pairs = new HashMap<>();
+        int[] inboundCount = new int[size + 1];
+        for (List<Integer> legs : itineraries.values()) {
+            for (int k = 1; k < legs.size(); k++) {
+                int in = legs.get(k - 1), out = legs.get(k);
+                if (destinations[in].equals(origins[out])
+                        && departure[out] >= departure[in] + duration[in]) {
+                    if (pairs.merge((long) out * size + in, 1, Integer::sum) == 1) inboundCount[out]++;
+                }
+            }
+        }
+        connectionStart = new int[size + 1];
+        for (int i = 0; i < size; i++) connectionStart[i + 1] = connectionStart[i] + inboundCount[i];
+        connectionInbound = new int[connectionStart[size]];
+        connectionPassengers = new int[connectionStart[size]];
+        int[] fill = connectionStart.clone();
+        int total = 0;
+        for (Map.Entry<Long, Integer> e : pairs.entrySet()) {
+            int out = (int) (e.getKey() / size), in = (int) (e.getKey() % size);
+            connectionInbound[fill[out]] = in;
+            connectionPassengers[fill[out]++] = e.getValue();
+            total += e.getValue();
+        }
+        totalConnections = total;
+    }
+}
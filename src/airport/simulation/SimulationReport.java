@@ -0,0 +1,92 @@
+package airport.simulation;
+
+/**
+ * Resultado agregado de las corridas de una simulación: puntualidad de las
+ * llegadas y conexiones perdidas, promediadas sobre todas las corridas.
+ */
+public class SimulationReport {
+
+    private final int runs;
+    private final int flights;
+    private final int connectingPassengers;
+    private final double onTimePercentage;
+    private final double worstOnTimePercentage;
+    private final double averageArrivalDelayMinutes;
+    private final double missedConnections;
+    private final long events;
+    private final long elapsedNanos;
+
+    SimulationReport(int runs, int flights, int connectingPassengers,
+                     double onTimePercentage, double worstOnTimePercentage,
+                     double averageArrivalDelayMinutes, double missedConnections,
+                     long events, long elapsedNanos) {
+        this.runs = runs;
+        this.flights = flights;
+        this.connectingPassengers = connectingPassengers;
+        this.onTimePercentage = onTimePercentage;
+        this.worstOnTimePercentage = worstOnTimePercentage;
+        this.averageArrivalDelayMinutes = averageArrivalDelayMinutes;
+        this.missedConnections = missedConnections;
+        this.events = events;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public int getFlights() {
+        return flights;
+    }
+
+    /** Pasajeros con conexión por corrida (cada tramo de conexión cuenta una vez). */
+    public int getConnectingPassengers() {
+        return connectingPassengers;
+    }
+
+    /** Porcentaje medio de llegadas puntuales. */
+    public double getOnTimePercentage() {
+        return onTimePercentage;
+    }
+
+    /** Porcentaje de llegadas puntuales de la peor corrida. */
+    public double getWorstOnTimePercentage() {
+        return worstOnTimePercentage;
+    }
+
+    /** Retraso medio de llegada, contando 0 para los vuelos adelantados. */
+    public double getAverageArrivalDelayMinutes() {
+        return averageArrivalDelayMinutes;
+    }
+
+    /** Conexiones perdidas por corrida, en promedio. */
+    public double getMissedConnections() {
+        return missedConnections;
+    }
+
+    public double getMissedConnectionPercentage() {
+        return connectingPassengers == 0 ? 0 : 100.0 * missedConnections / connectingPassengers;
+    }
+
+    /** Eventos procesados en total. */
+    public long getEvents() {
+        return events;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getEventsPerSecond() {
+        return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d corridas, %d vuelos: %.1f%% puntuales (peor %.1f%%), "
+                        + "retraso medio %.1f min, %.1f conexiones perdidas de %d (%.1f%%)",
+                runs, flights, onTimePercentage, worstOnTimePercentage,
+                averageArrivalDelayMinutes, missedConnections, connectingPassengers,
+                getMissedConnectionPercentage());
+    }
+}
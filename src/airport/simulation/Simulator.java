@@ -0,0 +1,160 @@
+package airport.simulation;
+
+import airport.model.Flight;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Simulación de eventos discretos del horario. Cada corrida inyecta los
+ * retrasos del {@link Scenario} y procesa en orden de tiempo las salidas y
+ * llegadas de una cola de prioridad: un vuelo no sale hasta que su avión
+ * llegó del vuelo anterior y cumplió la rotación, y al salir se cuentan las
+ * conexiones de sus pasajeros que no llegaron a tiempo. Las corridas de
+ * Monte Carlo se reparten entre los núcleos con un stream paralelo; cada una
+ * tiene su propio generador, derivado de la semilla, así que el resultado no
+ * depende del reparto.
+ */
+public class Simulator {
+
+    private final Schedule schedule;
+
+    /**
+     * @param flights      vuelos a simular, en orden de salida
+     * @param passengersOf pasajeros de cada vuelo por ID
+     */
+    public Simulator(List<Flight> flights, Function<String, long[]> passengersOf) {
+        this.schedule = new Schedule(flights, passengersOf);
+    }
+
+    public int getFlights() {
+        return schedule.size;
+    }
+
+    public SimulationReport run(Scenario scenario, int runs, long seed) {
+        if (runs <= 0)
+            throw new IllegalArgumentException("runs debe ser > 0");
+        int[][] targets = targetsOf(scenario);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[runs];
+        for (int r = 0; r < runs; r++) randoms[r] = root.split();
+
+        long start = System.nanoTime();
+        Totals totals = IntStream.range(0, runs).parallel()
+                .mapToObj(r -> runOnce(scenario, targets, randoms[r]))
+                .reduce(Totals::merge)
+                .orElseThrow();
+        long elapsed = System.nanoTime() - start;
+
+        long arrivals = Math.max(1, totals.arrivals);
+        return new SimulationReport(runs, schedule.size, schedule.totalConnections,
+                100.0 * totals.onTime / arrivals,
+                schedule.size == 0 ? 100.0 : 100.0 * totals.worstOnTime / schedule.size,
+                (double) totals.delayMinutes / arrivals,
+                (double) totals.missedConnections / runs,
+                totals.events, elapsed);
+    }
+
+    /** Vuelos a los que aplica cada retraso del escenario. */
+    private int[][] targetsOf(Scenario scenario) {
+        List<Scenario.Delay> delays = scenario.getDelays();
+        int[][] targets = new int[delays.size()][];
+        for (int d = 0; d < delays.size(); d++) {
+            String location = delays.get(d).departureLocationId;
+            targets[d] = IntStream.range(0, schedule.size)
+                    .filter(i -> location == null || location.equals(schedule.origins[i]))
+                    .toArray();
+        }
+        return targets;
+    }
+
+    private Totals runOnce(Scenario scenario, int[][] targets, SplittableRandom random) {
+        Schedule s = schedule;
+        int n = s.size;
+        int turnaround = scenario.getTurnaroundMinutes();
+        int minConnection = scenario.getMinConnectionMinutes();
+        int onTimeLimit = scenario.getOnTimeMinutes();
+
+        int[] injected = new int[n];
+        List<Scenario.Delay> delays = scenario.getDelays();
+        for (int d = 0; d < targets.length; d++) {
+            Scenario.Delay delay = delays.get(d);
+            for (int i : targets[d]) {
+                if (random.nextDouble() < delay.probability) injected[i] += delay.minutes;
+            }
+        }
+
+        long[] arrivedAt = new long[n];
+        Arrays.fill(arrivedAt, -1);
+        boolean[] waiting = new boolean[n];
+        EventQueue queue = new EventQueue(2 * n);
+        for (int i = 0; i < n; i++) {
+            queue.push(s.departure[i] + injected[i], EventQueue.DEPARTURE, i);
+        }
+
+        Totals totals = new Totals();
+        while (!queue.isEmpty()) {
+            long event = queue.pop();
+            totals.events++;
+            long now = EventQueue.minute(event);
+            int i = EventQueue.flight(event);
+            if (EventQueue.type(event) == EventQueue.DEPARTURE) {
+                int previous = s.previousOfPlane[i];
+                if (previous >= 0) {
+                    if (arrivedAt[previous] < 0) {
+                        waiting[i] = true; // released when the plane lands
+                        continue;
+                    }
+                    long ready = arrivedAt[previous] + turnaround;
+                    if (ready > now) {
+                        queue.push(ready, EventQueue.DEPARTURE, i);
+                        continue;
+                    }
+                }
+                for (int k = s.connectionStart[i]; k < s.connectionStart[i + 1]; k++) {
+                    long inbound = arrivedAt[s.connectionInbound[k]];
+                    if (inbound < 0 || inbound + minConnection > now) {
+                        totals.missedConnections += s.connectionPassengers[k];
+                    }
+                }
+                queue.push(now + s.duration[i], EventQueue.ARRIVAL, i);
+            } else {
+                arrivedAt[i] = now;
+                long delay = now - (s.departure[i] + s.duration[i]);
+                totals.arrivals++;
+                totals.delayMinutes += Math.max(0, delay);
+                if (delay <= onTimeLimit) totals.onTime++;
+                int next = s.nextOfPlane[i];
+                if (next >= 0 && waiting[next]) {
+                    waiting[next] = false;
+                    queue.push(now + turnaround, EventQueue.DEPARTURE, next);
+                }
+            }
+        }
+        totals.worstOnTime = totals.onTime;
+        return totals;
+    }
+
+    /** Acumulado de una o varias corridas. */
+    private static final class Totals {
+        long events;
+        long arrivals;
+        long onTime;
+        long worstOnTime = Long.MAX_VALUE;
+        long delayMinutes;
+        long missedConnections;
+
+        Totals merge(Totals other) {
+            events += other.events;
+            arrivals += other.arrivals;
+            onTime += other.onTime;
+            worstOnTime = Math.min(worstOnTime, other.worstOnTime);
+            delayMinutes += other.delayMinutes;
+            missedConnections += other.missedConnections;
+            return this;
+        }
+    }
+}
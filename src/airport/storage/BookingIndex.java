@@ -0,0 +1,328 @@
+package airport.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Relaciones vuelo–pasajero y avión–vuelo guardadas por ID, fuera de las
+ * entidades. Cada vuelo, pasajero y avión recibe un índice denso (slot) y las
+ * adyacencias son listas de {@code int}, así que una reserva ocupa 8 bytes
+ * (un slot en cada lado) y ninguna entidad mantiene vivas a las otras. Ambos
+ * lados se actualizan bajo el mismo candado, por lo que nunca se desincronizan.
+ * Las entidades se resuelven por ID en el repositorio solo cuando se piden.
+ * <p>
+ * Borrar un vuelo o un pasajero solo marca su slot como muerto (tombstone) y
+ * ajusta los contadores del otro lado; las lecturas ignoran los slots muertos.
+ * Las referencias muertas se eliminan después, por partes, en un hilo de
+ * compactación que toma el candado solo un momento por cada tanda de listas.
+ */
+public class BookingIndex {
+
+    /** Resultado de {@link #book(String, long, int)}. */
+    public enum Outcome { BOOKED, ALREADY_BOOKED, FULL }
+
+    private static final int COMPACTION_THRESHOLD = 256;
+    private static final int COMPACTION_BATCH = 512;
+
+    private final Map<String, Integer> flightSlots = new HashMap<>();
+    private final Map<Long, Integer> passengerSlots = new HashMap<>();
+    private final Map<String, Integer> planeSlots = new HashMap<>();
+    private final List<String> flightIds = new ArrayList<>();
+    private long[] passengerIds = new long[64];
+
+    // adyacencias por slot; null hasta la primera relación (o tras borrar)
+    private final List<IntList> passengersByFlight = new ArrayList<>();
+    private final List<IntList> flightsByPassenger = new ArrayList<>();
+    private final List<IntList> flightsByPlane = new ArrayList<>();
+
+    // contadores vivos por slot (las listas pueden tener referencias muertas)
+    private final IntList passengerCount = new IntList(64);
+    private final IntList flightCount = new IntList(64);
+    private final IntList planeFlightCount = new IntList(16);
+    private final IntList planeOfFlight = new IntList(64);
+
+    private final BitSet deadFlights = new BitSet();
+    private final BitSet deadPassengers = new BitSet();
+    private int tombstones; // referencias muertas que siguen en alguna lista
+    private int compactionCursor;
+    private boolean compactionScheduled;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "booking-index-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Registra un vuelo nuevo y lo asocia a su avión. */
+    public synchronized void addFlight(String flightId, String planeId) {
+        int flight = flightSlot(flightId);
+        int plane = planeSlot(planeId);
+        adjacency(flightsByPlane, plane).add(flight);
+        planeOfFlight.set(flight, plane);
+        increment(planeFlightCount, plane);
+    }
+
+    /**
+     * Reserva al pasajero en el vuelo si no lo está ya y quedan menos de
+     * {@code capacity} pasajeros. Comprobación y registro son atómicos.
+     */
+    public synchronized Outcome book(String flightId, long passengerId, int capacity) {
+        int flight = flightSlot(flightId);
+        int passenger = passengerSlot(passengerId);
+        IntList passengers = adjacency(passengersByFlight, flight);
+        if (passengers.contains(passenger)) return Outcome.ALREADY_BOOKED;
+        if (passengerCount.get(flight) >= capacity) return Outcome.FULL;
+        passengers.add(passenger);
+        adjacency(flightsByPassenger, passenger).add(flight);
+        increment(passengerCount, flight);
+        increment(flightCount, passenger);
+        return Outcome.BOOKED;
+    }
+
+    /**
+     * Aplica varias reservas bajo una sola toma del candado: la i-ésima
+     * reserva al pasajero {@code passengerIds[i]} en {@code flightIds[i]}.
+     */
+    public synchronized Outcome[] bookAll(String[] flightIds, long[] passengerIds, int[] capacities) {
+        Outcome[] outcomes = new Outcome[flightIds.length];
+        for (int i = 0; i < flightIds.length; i++) {
+            outcomes[i] = book(flightIds[i], passengerIds[i], capacities[i]);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Borra el vuelo: lo saca de su avión y de los vuelos de cada pasajero.
+     * Devuelve los IDs de los pasajeros que tenía.
+     */
+    public synchronized long[] removeFlight(String flightId) {
+        Integer flight = flightSlots.remove(flightId);
+        if (flight == null) return new long[0];
+        deadFlights.set(flight);
+        flightIds.set(flight, null);
+        IntList passengers = passengersByFlight.get(flight);
+        passengersByFlight.set(flight, null);
+        long[] affected = new long[passengers == null ? 0 : passengers.size()];
+        int n = 0;
+        for (int i = 0; i < affected.length; i++) {
+            int passenger = passengers.get(i);
+            if (deadPassengers.get(passenger)) {
+                tombstones--; // la referencia muerta se va con la lista
+                continue;
+            }
+            decrement(flightCount, passenger);
+            affected[n++] = passengerIds[passenger];
+            tombstones++;
+        }
+        int plane = planeOfFlight.get(flight);
+        if (plane >= 0) {
+            decrement(planeFlightCount, plane);
+            tombstones++;
+        }
+        passengerCount.set(flight, 0);
+        scheduleCompactionIfNeeded();
+        return n == affected.length ? affected : Arrays.copyOf(affected, n);
+    }
+
+    /** Borra al pasajero de todos sus vuelos. Devuelve los IDs de esos vuelos. */
+    public synchronized List<String> removePassenger(long passengerId) {
+        Integer passenger = passengerSlots.remove(passengerId);
+        List<String> affected = new ArrayList<>();
+        if (passenger == null) return affected;
+        deadPassengers.set(passenger);
+        IntList flights = flightsByPassenger.get(passenger);
+        flightsByPassenger.set(passenger, null);
+        for (int i = 0; flights != null && i < flights.size(); i++) {
+            int flight = flights.get(i);
+            if (deadFlights.get(flight)) {
+                tombstones--; // la referencia muerta se va con la lista
+                continue;
+            }
+            decrement(passengerCount, flight);
+            affected.add(flightIds.get(flight));
+            tombstones++;
+        }
+        flightCount.set(passenger, 0);
+        scheduleCompactionIfNeeded();
+        return affected;
+    }
+
+    /** Borra un avión; quien llama debe haber comprobado que ya no tiene vuelos. */
+    public synchronized void removePlane(String planeId) {
+        Integer plane = planeSlots.remove(planeId);
+        if (plane != null) {
+            IntList flights = flightsByPlane.get(plane);
+            for (int i = 0; flights != null && i < flights.size(); i++) {
+                if (deadFlights.get(flights.get(i))) tombstones--;
+            }
+            flightsByPlane.set(plane, null);
+            planeFlightCount.set(plane, 0);
+        }
+    }
+
+    public synchronized boolean isBooked(String flightId, long passengerId) {
+        Integer flight = flightSlots.get(flightId);
+        Integer passenger = passengerSlots.get(passengerId);
+        if (flight == null || passenger == null) return false;
+        IntList passengers = passengersByFlight.get(flight);
+        return passengers != null && passengers.contains(passenger);
+    }
+
+    public synchronized int countPassengers(String flightId) {
+        return count(passengerCount, flightSlots.get(flightId));
+    }
+
+    public synchronized int countFlights(long passengerId) {
+        return count(flightCount, passengerSlots.get(passengerId));
+    }
+
+    public synchronized int countPlaneFlights(String planeId) {
+        return count(planeFlightCount, planeSlots.get(planeId));
+    }
+
+    /** IDs de los vuelos del pasajero, en orden de reserva. */
+    public synchronized List<String> flightsOf(long passengerId) {
+        return flightIdsOf(flightsByPassenger, passengerSlots.get(passengerId));
+    }
+
+    public synchronized List<String> flightsOfPlane(String planeId) {
+        return flightIdsOf(flightsByPlane, planeSlots.get(planeId));
+    }
+
+    /** IDs de los pasajeros del vuelo, en orden de reserva. */
+    public synchronized long[] passengersOf(String flightId) {
+        Integer flight = flightSlots.get(flightId);
+        IntList list = flight == null ? null : passengersByFlight.get(flight);
+        if (list == null) return new long[0];
+        long[] ids = new long[list.size()];
+        int n = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int passenger = list.get(i);
+            if (!deadPassengers.get(passenger)) ids[n++] = passengerIds[passenger];
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    /** Referencias muertas pendientes de compactar. */
+    public synchronized int getTombstones() {
+        return tombstones;
+    }
+
+    /** Compacta todo de inmediato, en tandas, sin esperar al hilo de fondo. */
+    public void compact() {
+        while (compactStep(COMPACTION_BATCH)) {
+            // cada tanda suelta el candado para no frenar a los lectores
+        }
+    }
+
+    /**
+     * Limpia hasta {@code budget} listas de adyacencia bajo el candado.
+     * Devuelve {@code true} si aún quedan referencias muertas.
+     */
+    synchronized boolean compactStep(int budget) {
+        int total = passengersByFlight.size() + flightsByPassenger.size() + flightsByPlane.size();
+        for (int visited = 0; visited < budget && tombstones > 0 && total > 0; visited++) {
+            if (compactionCursor >= total) compactionCursor = 0;
+            int i = compactionCursor++;
+            int removed;
+            if (i < passengersByFlight.size()) {
+                removed = removeDead(passengersByFlight.get(i), deadPassengers);
+            } else if ((i -= passengersByFlight.size()) < flightsByPassenger.size()) {
+                removed = removeDead(flightsByPassenger.get(i), deadFlights);
+            } else {
+                removed = removeDead(flightsByPlane.get(i - flightsByPassenger.size()), deadFlights);
+            }
+            tombstones -= removed;
+        }
+        return tombstones > 0;
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (tombstones < COMPACTION_THRESHOLD || compactionScheduled) return;
+        compactionScheduled = true;
+        compactor.execute(() -> {
+            compact();
+            synchronized (this) {
+                compactionScheduled = false;
+            }
+        });
+    }
+
+    private static int removeDead(IntList list, BitSet dead) {
+        return list == null ? 0 : list.removeAll(dead);
+    }
+
+    private int flightSlot(String flightId) {
+        Integer slot = flightSlots.get(flightId);
+        if (slot != null) return slot;
+        int created = slot(flightSlots, flightId, passengersByFlight);
+        flightIds.add(flightId);
+        passengerCount.add(0);
+        planeOfFlight.add(-1);
+        return created;
+    }
+
+    private int passengerSlot(long passengerId) {
+        Integer slot = passengerSlots.get(passengerId);
+        if (slot != null) return slot;
+        int created = slot(passengerSlots, passengerId, flightsByPassenger);
+        if (created == passengerIds.length) {
+            passengerIds = Arrays.copyOf(passengerIds, created * 2);
+        }
+        passengerIds[created] = passengerId;
+        flightCount.add(0);
+        return created;
+    }
+
+    private int planeSlot(String planeId) {
+        Integer slot = planeSlots.get(planeId);
+        if (slot != null) return slot;
+        int created = slot(planeSlots, planeId, flightsByPlane);
+        planeFlightCount.add(0);
+        return created;
+    }
+
+    private static <K> int slot(Map<K, Integer> slots, K id, List<IntList> adjacency) {
+        int created = adjacency.size();
+        slots.put(id, created);
+        adjacency.add(null);
+        return created;
+    }
+
+    private static IntList adjacency(List<IntList> adjacency, int slot) {
+        IntList list = adjacency.get(slot);
+        if (list == null) {
+            list = new IntList(4);
+            adjacency.set(slot, list);
+        }
+        return list;
+    }
+
+    private static void increment(IntList counts, int slot) {
+        counts.set(slot, counts.get(slot) + 1);
+    }
+
+    private static void decrement(IntList counts, int slot) {
+        counts.set(slot, counts.get(slot) - 1);
+    }
+
+    private static int count(IntList counts, Integer slot) {
+        return slot == null ? 0 : counts.get(slot);
+    }
+
+    private List<String> flightIdsOf(List<IntList> adjacency, Integer slot) {
+        IntList list = slot == null ? null : adjacency.get(slot);
+        if (list == null) return new ArrayList<>();
+        List<String> ids = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            int flight = list.get(i);
+            if (!deadFlights.get(flight)) ids.add(flightIds.get(flight));
+        }
+        return ids;
+    }
+}
@@ -2,40 +2,225 @@ package airport.storage;
 
 import airport.model.Flight;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * Repositorio in‐memory de vuelos.
  * Ordenado por departureDate de más antiguo a más nuevo.
+ * Cada escritura publica una versión inmutable nueva (orden por salida,
+ * índice por ID e índices por aeropuerto de salida y de llegada, juntos);
+ * las lecturas toman la versión actual sin candados.
  */
 public class FlightRepository implements Repository<Flight, String> {
 
-    private final List<Flight> data = new ArrayList<>();
+    private static final Comparator<Flight> BY_DEPARTURE =
+            Comparator.comparingLong(Flight::getDepartureMinute).thenComparing(Flight::getId);
+    private static final Comparator<Flight> BY_ORIGIN =
+            Comparator.comparing(FlightRepository::origin).thenComparing(BY_DEPARTURE);
+    private static final Comparator<Flight> BY_DESTINATION =
+            Comparator.comparing(FlightRepository::destination)
+                    .thenComparingLong(Flight::getArrivalMinute)
+                    .thenComparing(Flight::getId);
+
+    /** Las vistas se publican juntas para que nunca se contradigan. */
+    private static final class Version {
+        final PersistentSortedList<Flight> byDeparture;
+        final PersistentSortedList<Flight> byId;
+        final PersistentSortedList<Flight> byOrigin;
+        final PersistentSortedList<Flight> byDestination;
+
+        Version(PersistentSortedList<Flight> byDeparture,
+                PersistentSortedList<Flight> byId,
+                PersistentSortedList<Flight> byOrigin,
+                PersistentSortedList<Flight> byDestination) {
+            this.byDeparture = byDeparture;
+            this.byId = byId;
+            this.byOrigin = byOrigin;
+            this.byDestination = byDestination;
+        }
+
+        Version without(Flight f) {
+            return new Version(byDeparture.without(f), byId.without(f),
+                    byOrigin.without(f), byDestination.without(f));
+        }
+
+        Version with(Flight f) {
+            return new Version(byDeparture.with(f), byId.with(f),
+                    byOrigin.with(f), byDestination.with(f));
+        }
+
+        Version replacing(Collection<Flight> removed, Collection<Flight> added) {
+            return new Version(byDeparture.replacing(removed, added),
+                    byId.replacing(removed, added),
+                    byOrigin.replacing(removed, added),
+                    byDestination.replacing(removed, added));
+        }
+    }
+
+    private volatile Version data = new Version(
+            PersistentSortedList.empty(BY_DEPARTURE),
+            PersistentSortedList.empty(Comparator.comparing(Flight::getId)),
+            PersistentSortedList.empty(BY_ORIGIN),
+            PersistentSortedList.empty(BY_DESTINATION));
 
     @Override
-    public Flight save(Flight f) {
-        data.add(f);
-        data.sort(Comparator.comparing(Flight::getDepartureDate));
-        return f;
+    public synchronized Flight save(Flight f) {
+        return update(f);
     }
 
     @Override
-    public Flight update(Flight f) {
-        data.removeIf(x -> x.getId().equals(f.getId()));
-        data.add(f);
-        data.sort(Comparator.comparing(Flight::getDepartureDate));
+    public synchronized Flight update(Flight f) {
+        Flight old = find(data, f.getId());
+        data = replace(data, old, f, old == null ? 1 : old.getVersion() + 1);
         return f;
     }
 
+    @Override
+    public synchronized Optional<Flight> update(Flight f, long expectedVersion) {
+        Flight old = find(data, f.getId());
+        if (old == null || old.getVersion() != expectedVersion) {
+            return Optional.empty();
+        }
+        data = replace(data, old, f, expectedVersion + 1);
+        return Optional.of(f);
+    }
+
+    /**
+     * Reemplaza varios vuelos y publica una sola versión con todos los
+     * cambios: los lectores ven o ninguno o todos. Si un ID se repite gana
+     * el último.
+     */
+    public synchronized List<Flight> updateAll(Collection<Flight> flights) {
+        Version current = data;
+        Map<String, Flight> latest = new LinkedHashMap<>();
+        for (Flight f : flights) latest.put(f.getId(), f);
+        List<Flight> removed = new ArrayList<>();
+        for (Flight f : latest.values()) {
+            Flight old = find(current, f.getId());
+            if (old != null) removed.add(old);
+            f.setVersion(old == null ? 1 : old.getVersion() + 1);
+        }
+        data = current.replacing(removed, latest.values());
+        return new ArrayList<>(latest.values());
+    }
+
     @Override
     public Optional<Flight> findById(String id) {
-        return data.stream()
-                .filter(f -> f.getId().equals(id))
-                .findFirst();
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(find(data, id));
+    }
+
+    @Override
+    public synchronized Optional<Flight> delete(String id) {
+        Version current = data;
+        Flight old = id == null ? null : find(current, id);
+        if (old == null) return Optional.empty();
+        // las instantáneas ya publicadas conservan el vuelo; la nueva versión no
+        data = current.without(old);
+        return Optional.of(old);
+    }
+
+    @Override
+    public String idOf(Flight f) {
+        return f.getId();
+    }
+
+    @Override
+    public synchronized void restore(String id, Flight previous) {
+        Version current = data;
+        Flight old = find(current, id);
+        if (old != null) current = current.without(old);
+        data = previous != null ? current.with(previous) : current;
+    }
+
+    /**
+     * Vuelos que salen de {@code locationId} entre {@code fromMinute} y
+     * {@code toMinute} (inclusive, en minutos de época), en orden de salida.
+     * Usa el índice por aeropuerto: O(log n + resultados).
+     */
+    public List<Flight> findDepartures(String locationId, long fromMinute, long toMinute) {
+        return findDepartures(locationId, fromMinute, toMinute, Integer.MAX_VALUE);
+    }
+
+    /** Como el anterior, pero como mucho los {@code limit} primeros: O(log n + limit). */
+    public List<Flight> findDepartures(String locationId, long fromMinute, long toMinute, int limit) {
+        return range(data.byOrigin, FlightRepository::origin, Flight::getDepartureMinute,
+                locationId, fromMinute, toMinute, limit);
+    }
+
+    /**
+     * Vuelos de cualquier aeropuerto que salen entre {@code fromMinute} y
+     * {@code toMinute} (inclusive), en orden de salida. O(log n + resultados).
+     */
+    public List<Flight> findDepartures(long fromMinute, long toMinute) {
+        List<Flight> result = new ArrayList<>();
+        PersistentSortedList<Flight> index = data.byDeparture;
+        Iterator<Flight> it = index.iterator(index.rank(f -> fromMinute <= f.getDepartureMinute() ? -1 : 1));
+        while (it.hasNext()) {
+            Flight f = it.next();
+            if (f.getDepartureMinute() > toMinute) break;
+            result.add(f);
+        }
+        return result;
+    }
+
+    /**
+     * Vuelos que llegan a {@code locationId} entre {@code fromMinute} y
+     * {@code toMinute} (inclusive), en orden de llegada; como mucho
+     * {@code limit}. O(log n + limit).
+     */
+    public List<Flight> findArrivals(String locationId, long fromMinute, long toMinute, int limit) {
+        return range(data.byDestination, FlightRepository::destination, Flight::getArrivalMinute,
+                locationId, fromMinute, toMinute, limit);
     }
 
     @Override
     public List<Flight> findAll() {
-        return data.stream().collect(Collectors.toList());
+        return new ArrayList<>(data.byDeparture);
+    }
+
+    @Override
+    public List<Flight> view() {
+        return data.byDeparture;
+    }
+
+    /** Tramo de un índice ordenado por (aeropuerto, minuto, ID). */
+    private static List<Flight> range(PersistentSortedList<Flight> index,
+                                      Function<Flight, String> location,
+                                      ToLongFunction<Flight> minute,
+                                      String locationId, long fromMinute, long toMinute, int limit) {
+        List<Flight> result = new ArrayList<>();
+        int start = index.rank(f -> {
+            int c = locationId.compareTo(location.apply(f));
+            if (c != 0) return c;
+            return fromMinute <= minute.applyAsLong(f) ? -1 : 1;
+        });
+        Iterator<Flight> it = index.iterator(start);
+        while (it.hasNext() && result.size() < limit) {
+            Flight f = it.next();
+            if (!location.apply(f).equals(locationId) || minute.applyAsLong(f) > toMinute) break;
+            result.add(f);
+        }
+        return result;
+    }
+
+    private static Version replace(Version version, Flight old, Flight f, long newVersion) {
+        // la versión guardada no se modifica, así que su salida sigue siendo la de su posición
+        Version next = old == null ? version : version.without(old);
+        f.setVersion(newVersion);
+        return next.with(f);
+    }
+
+    private static Flight find(Version version, String id) {
+        return version.byId.find(f -> id.compareTo(f.getId()));
+    }
+
+    private static String origin(Flight f) {
+        return f.getDepartureLocation().getAirportId();
+    }
+
+    private static String destination(Flight f) {
+        return f.getArrivalLocation().getAirportId();
     }
 }
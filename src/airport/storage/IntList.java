@@ -0,0 +1,55 @@
+package airport.storage;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/** Lista creciente de {@code int} sin cajas, para las tablas de adyacencia. */
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList(int capacity) {
+        values = new int[capacity];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size * 2));
+        }
+        values[size++] = value;
+    }
+
+    boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    void set(int index, int value) {
+        values[index] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Quita los valores marcados en {@code dead} y recorta el arreglo; devuelve cuántos quitó. */
+    int removeAll(BitSet dead) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!dead.get(values[i])) values[kept++] = values[i];
+        }
+        int removed = size - kept;
+        if (removed > 0) {
+            size = kept;
+            values = Arrays.copyOf(values, Math.max(kept, 1));
+        }
+        return removed;
+    }
+}
@@ -2,40 +2,78 @@ package airport.storage;
 
 import airport.model.Location;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repositorio in‐memory de localizaciones (aeropuertos).
  * Ordenado por airportId (String) ascendente.
+ * Cada escritura publica una versión inmutable nueva; las lecturas toman la
+ * versión actual sin candados.
  */
 public class LocationRepository implements Repository<Location, String> {
 
-    private final List<Location> data = new ArrayList<>();
+    private volatile PersistentSortedList<Location> data =
+            PersistentSortedList.empty(Comparator.comparing(Location::getAirportId));
 
     @Override
-    public Location save(Location l) {
-        data.add(l);
-        data.sort(Comparator.comparing(Location::getAirportId));
+    public synchronized Location save(Location l) {
+        l.setVersion(1);
+        data = data.with(l);
         return l;
     }
 
     @Override
-    public Location update(Location l) {
-        data.removeIf(x -> x.getAirportId().equals(l.getAirportId()));
-        data.add(l);
-        data.sort(Comparator.comparing(Location::getAirportId));
+    public synchronized Location update(Location l) {
+        // reemplaza a la localización con el mismo ID
+        l.setVersion(findById(l.getAirportId()).map(Location::getVersion).orElse(0L) + 1);
+        data = data.with(l);
         return l;
     }
 
+    @Override
+    public synchronized Optional<Location> update(Location l, long expectedVersion) {
+        Optional<Location> current = findById(l.getAirportId());
+        if (current.isEmpty() || current.get().getVersion() != expectedVersion) {
+            return Optional.empty();
+        }
+        l.setVersion(expectedVersion + 1);
+        data = data.with(l);
+        return Optional.of(l);
+    }
+
     @Override
     public Optional<Location> findById(String id) {
-        return data.stream()
-                .filter(l -> l.getAirportId().equals(id))
-                .findFirst();
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(data.find(x -> id.compareTo(x.getAirportId())));
+    }
+
+    @Override
+    public synchronized Optional<Location> delete(String id) {
+        Optional<Location> old = findById(id);
+        // las instantáneas ya publicadas conservan la entidad; la nueva versión no
+        old.ifPresent(x -> data = data.without(x));
+        return old;
+    }
+
+    @Override
+    public String idOf(Location l) {
+        return l.getAirportId();
+    }
+
+    @Override
+    public synchronized void restore(String id, Location previous) {
+        PersistentSortedList<Location> current = data;
+        data = previous != null
+                ? current.with(previous)
+                : findById(id).map(current::without).orElse(current);
     }
 
     @Override
     public List<Location> findAll() {
-        return data.stream().collect(Collectors.toList());
+        return new ArrayList<>(data);
+    }
+
+    @Override
+    public List<Location> view() {
+        return data;
     }
 }
@@ -2,43 +2,79 @@ package airport.storage;
 
 import airport.model.Passenger;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repositorio in‐memory de pasajeros.
  * Mantiene la lista siempre ordenada por ID ascendente.
+ * Cada escritura publica una versión inmutable nueva; las lecturas toman la
+ * versión actual sin candados.
  */
 public class PassengerRepository implements Repository<Passenger, Long> {
 
-    private final List<Passenger> data = new ArrayList<>();
+    private volatile PersistentSortedList<Passenger> data =
+            PersistentSortedList.empty(Comparator.comparingLong(Passenger::getId));
 
     @Override
-    public Passenger save(Passenger p) {
-        data.add(p);
-        data.sort(Comparator.comparingLong(Passenger::getId));
+    public synchronized Passenger save(Passenger p) {
+        p.setVersion(1);
+        data = data.with(p);
         return p;
     }
 
     @Override
-    public Passenger update(Passenger p) {
-        // elimino el viejo y agrego el nuevo
-        data.removeIf(x -> x.getId() == p.getId());
-        data.add(p);
-        data.sort(Comparator.comparingLong(Passenger::getId));
+    public synchronized Passenger update(Passenger p) {
+        // reemplaza al pasajero con el mismo ID
+        p.setVersion(findById(p.getId()).map(Passenger::getVersion).orElse(0L) + 1);
+        data = data.with(p);
         return p;
     }
 
+    @Override
+    public synchronized Optional<Passenger> update(Passenger p, long expectedVersion) {
+        Optional<Passenger> current = findById(p.getId());
+        if (current.isEmpty() || current.get().getVersion() != expectedVersion) {
+            return Optional.empty();
+        }
+        p.setVersion(expectedVersion + 1);
+        data = data.with(p);
+        return Optional.of(p);
+    }
+
     @Override
     public Optional<Passenger> findById(Long id) {
-        return data.stream()
-                .filter(p -> p.getId() == id)
-                .findFirst();
+        if (id == null) return Optional.empty();
+        long key = id;
+        return Optional.ofNullable(data.find(p -> Long.compare(key, p.getId())));
+    }
+
+    @Override
+    public synchronized Optional<Passenger> delete(Long id) {
+        Optional<Passenger> old = findById(id);
+        // las instantáneas ya publicadas conservan la entidad; la nueva versión no
+        old.ifPresent(x -> data = data.without(x));
+        return old;
+    }
+
+    @Override
+    public Long idOf(Passenger p) {
+        return p.getId();
+    }
+
+    @Override
+    public synchronized void restore(Long id, Passenger previous) {
+        PersistentSortedList<Passenger> current = data;
+        data = previous != null
+                ? current.with(previous)
+                : findById(id).map(current::without).orElse(current);
     }
 
     @Override
     public List<Passenger> findAll() {
-        // devolvemos una copia de la lista
-        return data.stream()
-                .collect(Collectors.toList());
+        return new ArrayList<>(data);
+    }
+
+    @Override
+    public List<Passenger> view() {
+        return data;
     }
 }
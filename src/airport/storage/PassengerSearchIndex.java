@@ -0,0 +1,102 @@
+package airport.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Índice in‐memory para búsqueda incremental (type-ahead) de pasajeros.
+ * Mantiene un índice de prefijos sobre el ID (como texto) y otro sobre los
+ * tokens de nombre y apellido en minúsculas. Una búsqueda recorre solo las
+ * entradas que comparten el prefijo y se detiene al juntar {@code limit}
+ * resultados: O(log n + limit) sin importar cuántos pasajeros haya.
+ */
+public class PassengerSearchIndex {
+
+    private final TreeMap<String, Long> byId = new TreeMap<>();
+    private final TreeMap<String, Set<Long>> byToken = new TreeMap<>();
+    private final Map<Long, String[]> tokensById = new HashMap<>();
+
+    /** Indexa (o reindexa) al pasajero con el nombre dado. */
+    public synchronized void index(long id, String firstname, String lastname) {
+        remove(id);
+        byId.put(String.valueOf(id), id);
+        String[] tokens = tokenize(firstname + " " + lastname);
+        tokensById.put(id, tokens);
+        for (String token : tokens) {
+            byToken.computeIfAbsent(token, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        byId.remove(String.valueOf(id));
+        String[] tokens = tokensById.remove(id);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Set<Long> ids = byToken.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) byToken.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code limit} IDs que coinciden con la consulta: primero
+     * los IDs que empiezan por el texto, luego los pasajeros cuyo nombre tiene
+     * un token que empieza por cada palabra de la consulta. Una consulta vacía
+     * devuelve los primeros IDs en orden.
+     */
+    public synchronized List<Long> search(String query, int limit) {
+        Set<Long> result = new LinkedHashSet<>();
+        String q = query == null ? "" : query.trim();
+
+        for (Long id : prefixRange(byId, q).values()) {
+            if (result.size() >= limit) return new ArrayList<>(result);
+            result.add(id);
+        }
+
+        String[] words = tokenize(q);
+        if (words.length == 0) return new ArrayList<>(result);
+        for (Set<Long> ids : prefixRange(byToken, words[0]).values()) {
+            for (Long id : ids) {
+                if (result.size() >= limit) return new ArrayList<>(result);
+                if (matchesAll(tokensById.get(id), words)) {
+                    result.add(id);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(TreeMap<String, V> map, String prefix) {
+        if (prefix.isEmpty()) return map;
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean matchesAll(String[] tokens, String[] words) {
+        for (int w = 1; w < words.length; w++) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(words[w])) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static String[] tokenize(String text) {
+        String t = text.trim().toLowerCase(Locale.ROOT);
+        return t.isEmpty() ? new String[0] : t.split("\\s+");
+    }
+}
@@ -0,0 +1,306 @@
+package airport.storage;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lista ordenada inmutable y persistente (árbol AVL con tamaños). Cada
+ * escritura devuelve una versión nueva que comparte con la anterior todo
+ * menos el camino modificado (O(log n)), así que una versión publicada es una
+ * instantánea que se puede leer desde cualquier hilo sin candados.
+ * {@code get(i)} es O(log n) y recorrer la lista completa es O(n).
+ *
+ * @param <T> elemento; dos elementos que el orden considera iguales son el mismo
+ */
+final class PersistentSortedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final class Node<T> {
+        final T value;
+        final Node<T> left;
+        final Node<T> right;
+        final int size;
+        final int height;
+
+        Node(T value, Node<T> left, Node<T> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private final Node<T> root;
+
+    private PersistentSortedList(Comparator<? super T> order, Node<T> root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    static <T> PersistentSortedList<T> empty(Comparator<? super T> order) {
+        return new PersistentSortedList<>(order, null);
+    }
+
+    /** Versión con {@code value} insertado, o reemplazando al elemento igual. */
+    PersistentSortedList<T> with(T value) {
+        return new PersistentSortedList<>(order, insert(root, value));
+    }
+
+    /** Versión sin el elemento igual a {@code value} (la misma si no está). */
+    PersistentSortedList<T> without(T value) {
+        Node<T> updated = remove(root, value);
+        return updated == root ? this : new PersistentSortedList<>(order, updated);
+    }
+
+    /**
+     * Versión sin los elementos de {@code removed} (las mismas instancias que
+     * contiene) y con los de {@code added}. Para lotes pequeños aplica cada
+     * cambio por separado; para lotes grandes mezcla y reconstruye el árbol
+     * en una sola pasada, O(n + k log k).
+     */
+    PersistentSortedList<T> replacing(Collection<? extends T> removed, Collection<? extends T> added) {
+        if ((removed.size() + added.size()) * 8L < size()) {
+            Node<T> n = root;
+            for (T value : removed) n = remove(n, value);
+            for (T value : added) n = insert(n, value);
+            return new PersistentSortedList<>(order, n);
+        }
+        Set<T> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        gone.addAll(removed);
+        List<T> fresh = new ArrayList<>(added);
+        fresh.sort(order);
+
+        List<T> merged = new ArrayList<>(size() + fresh.size());
+        Iterator<T> old = iterator();
+        T current = next(old, gone);
+        int i = 0;
+        while (current != null || i < fresh.size()) {
+            int c = current == null ? -1 : i == fresh.size() ? 1 : order.compare(fresh.get(i), current);
+            if (c > 0) {
+                merged.add(current);
+                current = next(old, gone);
+                continue;
+            }
+            if (c == 0) current = next(old, gone);
+            T value = fresh.get(i++);
+            int last = merged.size() - 1;
+            // an equal element is replaced, as in with()
+            if (last >= 0 && order.compare(merged.get(last), value) == 0) {
+                merged.set(last, value);
+            } else {
+                merged.add(value);
+            }
+        }
+        return new PersistentSortedList<>(order, build(merged, 0, merged.size()));
+    }
+
+    /**
+     * Busca con una sonda que compara la clave buscada contra un elemento
+     * (negativo si la clave va antes, como {@code compare(clave, elemento)}).
+     */
+    T find(ToIntFunction<? super T> probe) {
+        Node<T> n = root;
+        while (n != null) {
+            int c = probe.applyAsInt(n.value);
+            if (c == 0) return n.value;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    /**
+     * Posición donde iría la clave de la sonda: cuántos elementos quedan antes
+     * que ella (la sonda es positiva para esos elementos). O(log n).
+     */
+    int rank(ToIntFunction<? super T> probe) {
+        int rank = 0;
+        Node<T> n = root;
+        while (n != null) {
+            if (probe.applyAsInt(n.value) > 0) {
+                rank += size(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+        Node<T> n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.value;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Recorre en orden desde la posición {@code index}: O(log n) para llegar y
+     * O(1) amortizado por elemento, sin el O(log n) de cada {@code get(i)}.
+     */
+    Iterator<T> iterator(int index) {
+        return new Iterator<>() {
+            private final Deque<Node<T>> path = new ArrayDeque<>();
+
+            {
+                // keep the nodes still to visit along the path to index
+                Node<T> n = root;
+                int i = index;
+                while (n != null) {
+                    int leftSize = size(n.left);
+                    if (i <= leftSize) {
+                        path.push(n);
+                        if (i == leftSize) break;
+                        n = n.left;
+                    } else {
+                        i -= leftSize + 1;
+                        n = n.right;
+                    }
+                }
+            }
+
+            private void descend(Node<T> n) {
+                for (; n != null; n = n.left) path.push(n);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (path.isEmpty()) throw new NoSuchElementException();
+                Node<T> n = path.pop();
+                descend(n.right);
+                return n.value;
+            }
+        };
+    }
+
+    /** Comprueba el balance AVL y la altura y el tamaño guardados en cada nodo; para pruebas. */
+    boolean isBalanced() {
+        return checkedHeight(root) >= 0;
+    }
+
+    /** Altura del subárbol, o -1 si algún nodo no cumple. */
+    private static int checkedHeight(Node<?> n) {
+        if (n == null) return 0;
+        int left = checkedHeight(n.left), right = checkedHeight(n.right);
+        if (left < 0 || right < 0 || Math.abs(left - right) > 1) return -1;
+        if (n.height != Math.max(left, right) + 1 || n.size != size(n.left) + size(n.right) + 1) return -1;
+        return n.height;
+    }
+
+    private static <T> T next(Iterator<T> it, Set<T> skip) {
+        while (it.hasNext()) {
+            T value = it.next();
+            if (!skip.contains(value)) return value;
+        }
+        return null;
+    }
+
+    /** Árbol perfectamente balanceado a partir de una lista ya ordenada. */
+    private static <T> Node<T> build(List<T> sorted, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node<>(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    private Node<T> insert(Node<T> n, T value) {
+        if (n == null) return new Node<>(value, null, null);
+        int c = order.compare(value, n.value);
+        if (c == 0) return new Node<>(value, n.left, n.right);
+        return c < 0
+                ? balance(n.value, insert(n.left, value), n.right)
+                : balance(n.value, n.left, insert(n.right, value));
+    }
+
+    private Node<T> remove(Node<T> n, T value) {
+        if (n == null) return null;
+        int c = order.compare(value, n.value);
+        if (c < 0) {
+            Node<T> left = remove(n.left, value);
+            return left == n.left ? n : balance(n.value, left, n.right);
+        }
+        if (c > 0) {
+            Node<T> right = remove(n.right, value);
+            return right == n.right ? n : balance(n.value, n.left, right);
+        }
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node<T> min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.value, n.left, removeMin(n.right));
+    }
+
+    private Node<T> removeMin(Node<T> n) {
+        if (n.left == null) return n.right;
+        return balance(n.value, removeMin(n.left), n.right);
+    }
+
+    private static <T> Node<T> balance(T value, Node<T> left, Node<T> right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.value, left.left, left.right);
+            }
+            return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.value, right.left, right.right);
+            }
+            return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+        }
+        return new Node<>(value, left, right);
+    }
+
+    private static <T> Node<T> rotateLeft(T value, Node<T> left, Node<T> right) {
+        return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+    }
+
+    private static <T> Node<T> rotateRight(T value, Node<T> left, Node<T> right) {
+        return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+    }
+
+    private static int size(Node<?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node<?> n) {
+        return n == null ? 0 : n.height;
+    }
+}
@@ -2,40 +2,78 @@ package airport.storage;
 
 import airport.model.Plane;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Repositorio in‐memory de aviones.
  * Siempre ordenado por ID (String) ascendente.
+ * Cada escritura publica una versión inmutable nueva; las lecturas toman la
+ * versión actual sin candados.
  */
 public class PlaneRepository implements Repository<Plane, String> {
 
-    private final List<Plane> data = new ArrayList<>();
+    private volatile PersistentSortedList<Plane> data =
+            PersistentSortedList.empty(Comparator.comparing(Plane::getId));
 
     @Override
-    public Plane save(Plane p) {
-        data.add(p);
-        data.sort(Comparator.comparing(Plane::getId));
+    public synchronized Plane save(Plane p) {
+        p.setVersion(1);
+        data = data.with(p);
         return p;
     }
 
     @Override
-    public Plane update(Plane p) {
-        data.removeIf(x -> x.getId().equals(p.getId()));
-        data.add(p);
-        data.sort(Comparator.comparing(Plane::getId));
+    public synchronized Plane update(Plane p) {
+        // reemplaza al avión con el mismo ID
+        p.setVersion(findById(p.getId()).map(Plane::getVersion).orElse(0L) + 1);
+        data = data.with(p);
         return p;
     }
 
+    @Override
+    public synchronized Optional<Plane> update(Plane p, long expectedVersion) {
+        Optional<Plane> current = findById(p.getId());
+        if (current.isEmpty() || current.get().getVersion() != expectedVersion) {
+            return Optional.empty();
+        }
+        p.setVersion(expectedVersion + 1);
+        data = data.with(p);
+        return Optional.of(p);
+    }
+
     @Override
     public Optional<Plane> findById(String id) {
-        return data.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(data.find(x -> id.compareTo(x.getId())));
+    }
+
+    @Override
+    public synchronized Optional<Plane> delete(String id) {
+        Optional<Plane> old = findById(id);
+        // las instantáneas ya publicadas conservan la entidad; la nueva versión no
+        old.ifPresent(x -> data = data.without(x));
+        return old;
+    }
+
+    @Override
+    public String idOf(Plane p) {
+        return p.getId();
+    }
+
+    @Override
+    public synchronized void restore(String id, Plane previous) {
+        PersistentSortedList<Plane> current = data;
+        data = previous != null
+                ? current.with(previous)
+                : findById(id).map(current::without).orElse(current);
     }
 
     @Override
     public List<Plane> findAll() {
-        return data.stream().collect(Collectors.toList());
+        return new ArrayList<>(data);
+    }
+
+    @Override
+    public List<Plane> view() {
+        return data;
     }
 }
@@ -1,5 +1,6 @@
 package airport.storage;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +10,36 @@ import java.util.Optional;
 public interface Repository<T, ID> {
     T save(T entity);
     T update(T entity);
+
+    /**
+     * Reemplaza la entidad solo si su versión guardada es {@code expectedVersion}
+     * (compare-and-set). Devuelve la entidad con su versión nueva, o vacío si
+     * otra escritura se adelantó o la entidad no existe.
+     */
+    Optional<T> update(T entity, long expectedVersion);
     Optional<T> findById(ID id);
+
+    /** Quita la entidad con ese ID; devuelve la versión que se quitó, si existía. */
+    Optional<T> delete(ID id);
+
+    /** ID con el que se guarda la entidad. */
+    ID idOf(T entity);
+
+    /**
+     * Deja {@code previous} tal cual (sin cambiar su versión) como valor
+     * guardado de {@code id}, o quita el ID si es {@code null}. Sirve para
+     * deshacer una escritura de una transacción que no pudo terminar.
+     */
+    void restore(ID id, T previous);
     List<T> findAll();
+
+    /**
+     * Vista de solo lectura sobre el contenido, en el mismo orden que findAll(),
+     * sin copiar la lista. Pensada para que la UI lea solo las filas visibles.
+     * Los repositorios versionados devuelven una instantánea inmutable: no ve
+     * escrituras posteriores y se puede leer sin candados desde cualquier hilo.
+     */
+    default List<T> view() {
+        return Collections.unmodifiableList(findAll());
+    }
 }
@@ -0,0 +1,206 @@
+package airport.storage;
+
+import airport.model.Flight;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Slots de salida y llegada por aeropuerto. El tiempo se divide en franjas
+ * de {@code bucketMinutes} y cada aeropuerto admite como mucho un número de
+ * salidas y otro de llegadas por franja. Los contadores son arreglos de
+ * {@code int} por día, así que comprobar y reservar un slot es O(1); cada día
+ * guarda además qué franjas están llenas para encontrar la siguiente libre
+ * con {@link BitSet#nextClearBit} sin recorrer el horario.
+ */
+public class SlotTable {
+
+    /** Capacidad por defecto: sin límite. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    /** Valor de {@link #nextFree} cuando no hay slot dentro del horizonte. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SEARCH_HORIZON_DAYS = 366;
+
+    /** Contadores de las franjas de un día. */
+    private static final class Day {
+        final int[] counts;
+        final BitSet full;
+
+        Day(int buckets) {
+            counts = new int[buckets];
+            full = new BitSet(buckets);
+        }
+    }
+
+    /** Salidas o llegadas de un aeropuerto. */
+    private static final class Counters {
+        int max = UNLIMITED;
+        final Map<Long, Day> days = new HashMap<>();
+    }
+
+    private final int bucketMinutes;
+    private final int bucketsPerDay;
+    private final Map<String, Counters> departures = new HashMap<>();
+    private final Map<String, Counters> arrivals = new HashMap<>();
+
+    public SlotTable(int bucketMinutes) {
+        if (bucketMinutes <= 0 || MINUTES_PER_DAY % bucketMinutes != 0)
+            throw new IllegalArgumentException("La franja debe dividir el día: " + bucketMinutes);
+        this.bucketMinutes = bucketMinutes;
+        this.bucketsPerDay = MINUTES_PER_DAY / bucketMinutes;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    /** Fija el máximo de salidas y llegadas por franja del aeropuerto. */
+    public synchronized void setCapacity(String locationId, int maxDepartures, int maxArrivals) {
+        setMax(counters(departures, locationId), maxDepartures);
+        setMax(counters(arrivals, locationId), maxArrivals);
+    }
+
+    public synchronized int getMaxDepartures(String locationId) {
+        Counters c = departures.get(locationId);
+        return c == null ? UNLIMITED : c.max;
+    }
+
+    public synchronized int getMaxArrivals(String locationId) {
+        Counters c = arrivals.get(locationId);
+        return c == null ? UNLIMITED : c.max;
+    }
+
+    /**
+     * Reserva el slot de salida y el de llegada del vuelo si ambos tienen
+     * sitio. Comprobación y reserva son atómicas; si falta uno no reserva nada.
+     */
+    public synchronized boolean reserve(Flight f) {
+        if (!hasRoom(f)) return false;
+        add(f, 1);
+        return true;
+    }
+
+    /** Libera los slots que ocupa el vuelo. */
+    public synchronized void release(Flight f) {
+        add(f, -1);
+    }
+
+    /**
+     * Pasa el vuelo de los slots de {@code from} a los de {@code to}. Si los
+     * nuevos no tienen sitio deja los antiguos como estaban.
+     */
+    public synchronized boolean move(Flight from, Flight to) {
+        add(from, -1);
+        if (hasRoom(to)) {
+            add(to, 1);
+            return true;
+        }
+        add(from, 1);
+        return false;
+    }
+
+    /** Igual que {@link #move} para varios vuelos: se mueven todos o ninguno. */
+    public synchronized boolean moveAll(Collection<Flight> from, Collection<Flight> to) {
+        for (Flight f : from) add(f, -1);
+        int reserved = 0;
+        boolean fits = true;
+        for (Flight f : to) {
+            if (!hasRoom(f)) {
+                fits = false;
+                break;
+            }
+            add(f, 1);
+            reserved++;
+        }
+        if (fits) return true;
+        for (Flight f : to) {
+            if (reserved-- == 0) break;
+            add(f, -1);
+        }
+        for (Flight f : from) add(f, 1);
+        return false;
+    }
+
+    /**
+     * Primera salida a partir de {@code fromMinute} (minutos de época) con
+     * slot de salida libre en {@code departureId} y slot de llegada libre en
+     * {@code arrivalId} tras {@code durationMinutes}, o {@link #NONE}. Salta
+     * de franja llena en franja llena, no de minuto en minuto.
+     */
+    public synchronized long nextFree(String departureId, String arrivalId,
+                                      long fromMinute, int durationMinutes) {
+        Counters dep = departures.get(departureId), arr = arrivals.get(arrivalId);
+        long limit = fromMinute + (long) SEARCH_HORIZON_DAYS * MINUTES_PER_DAY;
+        long t = fromMinute;
+        while (t <= limit) {
+            long depBucket = Math.floorDiv(t, bucketMinutes);
+            long freeDeparture = nextClear(dep, depBucket);
+            if (freeDeparture != depBucket) {
+                t = freeDeparture * bucketMinutes;
+                continue;
+            }
+            long arrBucket = Math.floorDiv(t + durationMinutes, bucketMinutes);
+            long freeArrival = nextClear(arr, arrBucket);
+            if (freeArrival == arrBucket) return t;
+            // earliest departure that lands in the free arrival bucket
+            t = freeArrival * bucketMinutes - durationMinutes;
+        }
+        return NONE;
+    }
+
+    private boolean hasRoom(Flight f) {
+        return hasRoom(departures.get(f.getDepartureLocation().getAirportId()), f.getDepartureMinute())
+                && hasRoom(arrivals.get(f.getArrivalLocation().getAirportId()), f.getArrivalMinute());
+    }
+
+    private boolean hasRoom(Counters c, long minute) {
+        if (c == null) return true;
+        long bucket = Math.floorDiv(minute, bucketMinutes);
+        Day day = c.days.get(Math.floorDiv(bucket, bucketsPerDay));
+        return day == null || day.counts[Math.floorMod(bucket, bucketsPerDay)] < c.max;
+    }
+
+    private void add(Flight f, int delta) {
+        add(counters(departures, f.getDepartureLocation().getAirportId()), f.getDepartureMinute(), delta);
+        add(counters(arrivals, f.getArrivalLocation().getAirportId()), f.getArrivalMinute(), delta);
+    }
+
+    private void add(Counters c, long minute, int delta) {
+        long bucket = Math.floorDiv(minute, bucketMinutes);
+        Day day = c.days.computeIfAbsent(Math.floorDiv(bucket, bucketsPerDay), d -> new Day(bucketsPerDay));
+        int i = Math.floorMod(bucket, bucketsPerDay);
+        day.counts[i] += delta;
+        day.full.set(i, day.counts[i] >= c.max);
+    }
+
+    private void setMax(Counters c, int max) {
+        c.max = max;
+        for (Day day : c.days.values()) {
+            for (int i = 0; i < bucketsPerDay; i++) {
+                day.full.set(i, day.counts[i] >= max);
+            }
+        }
+    }
+
+    /** Primera franja desde {@code bucket} que no está llena. */
+    private long nextClear(Counters c, long bucket) {
+        if (c == null) return bucket;
+        long day = Math.floorDiv(bucket, bucketsPerDay);
+        int i = Math.floorMod(bucket, bucketsPerDay);
+        while (true) {
+            Day d = c.days.get(day);
+            int free = d == null ? i : d.full.nextClearBit(i);
+            if (free < bucketsPerDay) return day * bucketsPerDay + free;
+            day++;
+            i = 0;
+        }
+    }
+
+    private static Counters counters(Map<String, Counters> byLocation, String locationId) {
+        return byLocation.computeIfAbsent(locationId, id -> new Counters());
+    }
+}
@@ -0,0 +1,170 @@
+package airport.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transacción ligera sobre varios repositorios. Mientras está abierta tiene
+ * bloqueadas las claves declaradas en {@link TransactionManager#begin}; las
+ * escrituras se acumulan y solo se aplican, en orden, en {@link #commit()}.
+ * Abortar (o cerrar sin confirmar) descarta las escrituras sin haberlas
+ * aplicado y ejecuta las compensaciones de {@link #onRollback}.
+ * <p>
+ * Cada escritura de repositorio guarda, al aplicarse, lo que había antes; si
+ * una escritura posterior falla, {@code commit} restaura en orden inverso todo
+ * lo ya aplicado antes de liberar los candados. Las acciones de
+ * {@link #onCommit(Runnable)} no se pueden deshacer, así que no deben fallar;
+ * las que sí pueden fallar o van seguidas de algo que puede fallar se
+ * registran con su inversa en {@link #onCommit(Runnable, Runnable)}.
+ */
+public class Transaction implements AutoCloseable {
+
+    /** Escritura pendiente; al aplicarse devuelve cómo deshacerla, o null. */
+    private interface Write {
+        Runnable apply();
+    }
+
+    private final ReentrantLock[] locks;
+    private final List<Write> writes = new ArrayList<>();
+    private final List<Runnable> compensations = new ArrayList<>();
+    private boolean finished;
+
+    Transaction(ReentrantLock[] locks) {
+        this.locks = locks;
+        int acquired = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                lock.lock();
+                acquired++;
+            }
+        } finally {
+            if (acquired < locks.length) release(acquired);
+        }
+    }
+
+    public <T, ID> void save(Repository<T, ID> repository, T entity) {
+        stage(() -> {
+            ID id = repository.idOf(entity);
+            T previous = repository.findById(id).orElse(null);
+            repository.save(entity);
+            return () -> repository.restore(id, previous);
+        });
+    }
+
+    public <T, ID> void update(Repository<T, ID> repository, T entity) {
+        stage(() -> {
+            ID id = repository.idOf(entity);
+            T previous = repository.findById(id).orElse(null);
+            repository.update(entity);
+            return () -> repository.restore(id, previous);
+        });
+    }
+
+    public <T, ID> void delete(Repository<T, ID> repository, ID id) {
+        stage(() -> {
+            T previous = repository.delete(id).orElse(null);
+            return () -> repository.restore(id, previous);
+        });
+    }
+
+    /**
+     * Acción adicional (p. ej. sobre un índice) que se aplica al confirmar.
+     * No tiene inversa: no debe fallar.
+     */
+    public void onCommit(Runnable action) {
+        stage(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Como {@link #onCommit(Runnable)}, con la acción que la deshace si commit falla después. */
+    public void onCommit(Runnable action, Runnable undo) {
+        stage(() -> {
+            action.run();
+            return undo;
+        });
+    }
+
+    /**
+     * Compensa algo que ya se hizo con la transacción abierta (p. ej. reservar
+     * un slot): {@code undo} se ejecuta si la transacción se aborta o si
+     * commit falla, y se olvida si commit termina bien.
+     */
+    public void onRollback(Runnable undo) {
+        checkOpen();
+        compensations.add(undo);
+    }
+
+    /**
+     * Aplica las escrituras acumuladas y libera los candados. Si alguna falla
+     * deshace las ya aplicadas y las compensaciones, y relanza el error.
+     */
+    public void commit() {
+        checkOpen();
+        List<Runnable> undos = new ArrayList<>(writes.size());
+        try {
+            for (Write write : writes) {
+                Runnable undo = write.apply();
+                if (undo != null) undos.add(undo);
+            }
+            compensations.clear();
+        } catch (RuntimeException | Error e) {
+            undo(undos, e);
+            undo(compensations, e);
+            throw e;
+        } finally {
+            finish();
+        }
+    }
+
+    /** Descarta las escrituras acumuladas, ejecuta las compensaciones y libera los candados. */
+    public void abort() {
+        checkOpen();
+        try {
+            undo(compensations, null);
+        } finally {
+            finish();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!finished) abort();
+    }
+
+    private void stage(Write write) {
+        checkOpen();
+        writes.add(write);
+    }
+
+    private void checkOpen() {
+        if (finished) throw new IllegalStateException("La transacción ya terminó");
+    }
+
+    private void finish() {
+        finished = true;
+        writes.clear();
+        compensations.clear();
+        release(locks.length);
+    }
+
+    /** Ejecuta {@code undos} en orden inverso; los fallos se añaden a {@code cause} si la hay. */
+    private static void undo(List<Runnable> undos, Throwable cause) {
+        for (int i = undos.size() - 1; i >= 0; i--) {
+            try {
+                undos.get(i).run();
+            } catch (RuntimeException | Error e) {
+                if (cause == null) throw e;
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    private void release(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
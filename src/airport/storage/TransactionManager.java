@@ -0,0 +1,61 @@
+package airport.storage;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Crea transacciones sobre los repositorios. En lugar de un candado global
+ * usa un conjunto de candados por franjas (stripes): cada transacción declara
+ * al empezar las claves que va a escribir ("flight:ABC123", "passenger:42")
+ * y toma solo las franjas de esas claves, siempre en orden creciente, así que
+ * transacciones sobre entidades distintas avanzan en paralelo y nunca se
+ * bloquean mutuamente.
+ */
+public class TransactionManager {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+
+    public TransactionManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public TransactionManager(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1)
+            throw new IllegalArgumentException("stripes debe ser potencia de 2");
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Clave de bloqueo para la entidad {@code id} de tipo {@code type}. */
+    public static String key(String type, Object id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * Empieza una transacción y bloquea las claves dadas. Debe cerrarse
+     * (try-with-resources); si no se confirmó con {@link Transaction#commit()},
+     * cerrarla la aborta.
+     */
+    public Transaction begin(String... keys) {
+        boolean[] needed = new boolean[stripes.length];
+        for (String key : keys) {
+            needed[stripeOf(key)] = true;
+        }
+        int count = 0;
+        for (boolean n : needed) if (n) count++;
+        ReentrantLock[] held = new ReentrantLock[count];
+        int k = 0;
+        for (int i = 0; i < needed.length; i++) { // orden global: índice de franja
+            if (needed[i]) held[k++] = stripes[i];
+        }
+        return new Transaction(held);
+    }
+
+    private int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -7,16 +7,24 @@ package airport.view;
 import javax.swing.JOptionPane;
 import airport.model.*;
 import airport.controller.*;
+import airport.observer.ChangeEvent;
 import airport.observer.Observer; // Import the Observer interface
 import airport.response.*;
 import com.formdev.flatlaf.FlatDarkLaf;
 import java.awt.Color;
+import java.awt.Cursor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import javax.swing.UIManager;
-import javax.swing.table.DefaultTableModel;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  *
@@ -33,11 +41,40 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
     private final LocationController locationController;
     private final FlightController flightController;
 
+    private EntityTableModel<Passenger> passengerTableModel;
+    private EntityTableModel<Flight>    flightTableModel;
+    private EntityTableModel<Plane>     planeTableModel;
+    private EntityTableModel<Location>  locationTableModel;
+    private EntityTableModel<Flight>    myFlightsTableModel;
+
+    // Refresh in flight per table; a newer refresh cancels the older one
+    private final Map<EntityTableModel<?>, TableRefreshWorker<?>> refreshes = new HashMap<>();
+    private int busyWorkers;
+
+    // Type-ahead search behind comboSelectUser
+    private static final int USER_SEARCH_LIMIT = 20;
+    private javax.swing.Timer userSearchTimer;
+    private boolean updatingUserSearch;
+
+    // Passenger as read when the user was selected; its version guards the update form
+    private Passenger selectedPassenger;
+
+    // Id lists shared by the combos, loaded when a popup first opens
+    private LazyComboBoxModel.Source planeIds;
+    private LazyComboBoxModel.Source locationIds;
+    private LazyComboBoxModel.Source flightIds;
+
+    // Tab contents kept out of the tabbed pane until the tab is first selected
+    private final Map<Integer, java.awt.Component> deferredTabs = new HashMap<>();
+    // Table tabs whose data changed while hidden; refreshed once when shown
+    private final Set<java.awt.Component> staleTabs = new HashSet<>();
+
     public AirportFrame(PassengerController pc,
                         PlaneController plc,
                         LocationController lc,
                         FlightController fc) {
         initComponents();
+        installTableModels();
         this.passengerController = pc;
         this.planeController     = plc;
         this.locationController  = lc;
@@ -49,7 +86,8 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
         this.locationController.registerObserver(this);
         this.flightController.registerObserver(this);
 
-        loadInitialData();
+        installComboModels();
+        installUserSearch();
 
         this.setBackground(new Color(0, 0, 0, 0));
         this.setLocationRelativeTo(null);
@@ -59,6 +97,7 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
         this.generateHours();
         this.generateMinutes();
         this.blockPanels();
+        this.deferTabContents();
     }
 
     /**
@@ -73,80 +112,308 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
 
         switch (dataType) {
             case "passenger":
-                if (tableAllPassengers.isShowing()) { // Only refresh if the tab is active/visible or relevant
-                    btnRefreshAllPassengersActionPerformed(null);
-                }
-                // If a specific user is selected, their "My Flights" might need an update if addPassengerToFlight was called
-                if (comboSelectUser.getSelectedIndex() > 0 && tableMyFlights.isShowing()) {
-                    btnRefreshMyFlightsActionPerformed(null);
-                }
+                refreshWhenVisible(panelShowPassengers);
+                // addPassengerToFlight changes the selected user's "My Flights"
+                refreshWhenVisible(panelShowMyFlights);
                 break;
             case "plane":
-                if (tableAllPlanes.isShowing()) {
-                    btnRefreshAllPlanesActionPerformed(null);
-                }
+                refreshWhenVisible(panelShowPlanes);
                 break;
             case "location":
-                if (tableAllLocations.isShowing()) {
-                    btnRefreshAllLocationsActionPerformed(null);
-                }
+                refreshWhenVisible(panelShowLocations);
                 break;
             case "flight":
-                if (tableAllFlights.isShowing()) {
-                    btnRefreshAllFlightsActionPerformed(null);
+                refreshWhenVisible(panelShowFlights);
+                refreshWhenVisible(panelShowMyFlights);
+                break;
+            default:
+                // Unknown data type, or no specific table to refresh for it
+                break;
+        }
+    }
+
+    /**
+     * Refreshes the table on {@code tab} now if it is on screen; otherwise
+     * marks it stale so it is refreshed once, when the tab is next selected.
+     */
+    private void refreshWhenVisible(java.awt.Component tab) {
+        if (jTabbedPane1.getSelectedComponent() == tab && tab.isShowing()) {
+            refreshTab(tab);
+        } else {
+            staleTabs.add(tab);
+        }
+    }
+
+    private void refreshTab(java.awt.Component tab) {
+        if (tab == panelShowPassengers) {
+            btnRefreshAllPassengersActionPerformed(null);
+        } else if (tab == panelShowFlights) {
+            btnRefreshAllFlightsActionPerformed(null);
+        } else if (tab == panelShowPlanes) {
+            btnRefreshAllPlanesActionPerformed(null);
+        } else if (tab == panelShowLocations) {
+            btnRefreshAllLocationsActionPerformed(null);
+        } else if (tab == panelShowMyFlights) {
+            if (comboSelectUser.getSelectedIndex() > 0) {
+                btnRefreshMyFlightsActionPerformed(null);
+            } else {
+                myFlightsTableModel.clear();
+            }
+        }
+    }
+
+    /**
+     * Detaches every tab but the first from the tabbed pane, so the first
+     * frame only lays out the Administration tab. Each tab's content is put
+     * back when it is first selected, and a table tab that is stale (all of
+     * them, at start) is refreshed at that moment.
+     */
+    private void deferTabContents() {
+        for (int i = 1; i < jTabbedPane1.getTabCount(); i++) {
+            deferredTabs.put(i, jTabbedPane1.getComponentAt(i));
+            jTabbedPane1.setComponentAt(i, new javax.swing.JPanel());
+        }
+        staleTabs.add(panelShowPassengers);
+        staleTabs.add(panelShowFlights);
+        staleTabs.add(panelShowPlanes);
+        staleTabs.add(panelShowLocations);
+        jTabbedPane1.addChangeListener(e -> onTabSelected());
+    }
+
+    private void onTabSelected() {
+        int index = jTabbedPane1.getSelectedIndex();
+        java.awt.Component content = deferredTabs.remove(index);
+        if (content != null) {
+            jTabbedPane1.setComponentAt(index, content);
+        }
+        java.awt.Component tab = jTabbedPane1.getSelectedComponent();
+        if (staleTabs.remove(tab)) {
+            refreshTab(tab);
+        }
+    }
+
+    /**
+     * Applies a change event. The table models read straight from the
+     * controllers' views, so updates and manifest changes only need the
+     * visible rows repainted. Creations and delays change the row order,
+     * so those re-bind the view through {@link #update(String)}.
+     */
+    @Override
+    public void onChange(ChangeEvent event) {
+        if (event == null || event.getDataType() == null) return;
+
+        switch (event.getType()) {
+            case CREATED:
+                switch (event.getDataType()) {
+                    case "plane":    event.getIds().forEach(planeIds::add);    break;
+                    case "location": event.getIds().forEach(locationIds::add); break;
+                    case "flight":   event.getIds().forEach(flightIds::add);   break;
+                    default: break;
+                }
+                update(event.getDataType());
+                return;
+            case DELETED:
+            case CANCELLED:
+                switch (event.getDataType()) {
+                    case "plane":    event.getIds().forEach(planeIds::remove);    break;
+                    case "location": event.getIds().forEach(locationIds::remove); break;
+                    case "flight":   event.getIds().forEach(flightIds::remove);   break;
+                    default: break;
                 }
-                // If a specific user is selected, their "My Flights" might need an update
-                if (comboSelectUser.getSelectedIndex() > 0 && tableMyFlights.isShowing()) {
-                    btnRefreshMyFlightsActionPerformed(null);
+                update(event.getDataType());
+                return;
+            case UPDATED:
+            case DELAYED:
+                // The entity was replaced by a new version; re-read the snapshot
+                update(event.getDataType());
+                return;
+            default:
+                break;
+        }
+
+        switch (event.getDataType()) {
+            case "passenger":
+                passengerTableModel.rowsChanged();
+                if (comboSelectUser.getSelectedIndex() > 0
+                        && event.getIds().contains(comboSelectUser.getSelectedItem().toString())) {
+                    refreshWhenVisible(panelShowMyFlights);
                 }
                 break;
+            case "plane":
+                planeTableModel.rowsChanged();
+                break;
+            case "location":
+                locationTableModel.rowsChanged();
+                break;
+            case "flight":
+                flightTableModel.rowsChanged();
+                myFlightsTableModel.rowsChanged();
+                break;
             default:
-                // Unknown data type, or no specific table to refresh for it
                 break;
         }
     }
 
+    /**
+     * Replaces the designer's DefaultTableModels with models that read their
+     * rows lazily from the controllers' views.
+     */
+    private void installTableModels() {
+        passengerTableModel = new EntityTableModel<>(
+                new String[]{"ID", "Name", "Birthdate", "Age", "Phone", "Country", "Num Flight"},
+                List.<Function<Passenger, Object>>of(
+                        Passenger::getId,
+                        Passenger::getFullname,
+                        Passenger::getBirthDate,
+                        Passenger::calculateAge,
+                        Passenger::generateFullPhone,
+                        Passenger::getCountry,
+                        Passenger::getNumFlights));
+        flightTableModel = new EntityTableModel<>(
+                new String[]{"ID", "Departure Airport ID", "Arrival Airport ID", "Scale Airport ID",
+                        "Departure Date", "Arrival Date", "Plane ID", "Number Passengers"},
+                List.<Function<Flight, Object>>of(
+                        Flight::getId,
+                        f -> f.getDepartureLocation().getAirportId(),
+                        f -> f.getArrivalLocation().getAirportId(),
+                        f -> f.getScaleLocation() == null ? "" : f.getScaleLocation().getAirportId(),
+                        Flight::getDepartureDate,
+                        Flight::calculateArrivalDate,
+                        f -> f.getPlane().getId(),
+                        Flight::getNumPassengers));
+        planeTableModel = new EntityTableModel<>(
+                new String[]{"ID", "Brand", "Model", "Max Capacity", "Airline", "Number Flights"},
+                List.<Function<Plane, Object>>of(
+                        Plane::getId,
+                        Plane::getBrand,
+                        Plane::getModel,
+                        Plane::getMaxCapacity,
+                        Plane::getAirline,
+                        Plane::getNumFlights));
+        locationTableModel = new EntityTableModel<>(
+                new String[]{"Airport ID", "Airport Name", "City", "Country"},
+                List.<Function<Location, Object>>of(
+                        Location::getAirportId,
+                        Location::getAirportName,
+                        Location::getAirportCity,
+                        Location::getAirportCountry));
+        myFlightsTableModel = new EntityTableModel<>(
+                new String[]{"ID", "Departure Date", "Arrival Date"},
+                List.<Function<Flight, Object>>of(
+                        Flight::getId,
+                        Flight::getDepartureDate,
+                        Flight::calculateArrivalDate));
+
+        tableAllPassengers.setModel(passengerTableModel);
+        tableAllFlights.setModel(flightTableModel);
+        tableAllPlanes.setModel(planeTableModel);
+        tableAllLocations.setModel(locationTableModel);
+        tableMyFlights.setModel(myFlightsTableModel);
+    }
 
     /**
-     * Carga pasajeros, aviones, localizaciones y vuelos desde los controllers
-     * y los inserta en los JComboBox correspondientes.
+     * Runs {@code query} on a background worker and feeds its rows to
+     * {@code model}, cancelling the refresh still running for that table.
+     * The wait cursor stays on while any refresh is running.
      */
-    private void loadInitialData() {
-        // 1) Pasajeros → comboSelectUser
-        Response<List<Passenger>> rp = passengerController.getAllPassengers();
-        if (rp.isSuccess()) {
-            for (Passenger p : rp.getData()) {
-                comboSelectUser.addItem(String.valueOf(p.getId()));
-            }
+    private <T> void refreshInBackground(EntityTableModel<T> model,
+                                         Supplier<Response<List<T>>> query,
+                                         Consumer<Response<List<T>>> onFailure) {
+        TableRefreshWorker<?> previous = refreshes.get(model);
+        if (previous != null) {
+            previous.cancel(true);
         }
+        TableRefreshWorker<T> worker = new TableRefreshWorker<>(query, model, onFailure, () -> setBusy(-1));
+        refreshes.put(model, worker);
+        setBusy(1);
+        worker.execute();
+    }
+
+    private void setBusy(int delta) {
+        busyWorkers += delta;
+        setCursor(Cursor.getPredefinedCursor(busyWorkers > 0 ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
 
-        // 2) Aviones → comboFlightPlane
-        Response<List<Plane>> rpl = planeController.getAllPlanes();
-        if (rpl.isSuccess()) {
-            for (Plane pl : rpl.getData()) {
-                comboFlightPlane.addItem(pl.getId());
+    private void showRefreshError(Response<?> resp, String title) {
+        JOptionPane.showMessageDialog(this,
+                resp.getMessage(),
+                title,
+                JOptionPane.ERROR_MESSAGE
+        );
+    }
+
+    /**
+     * Conecta los JComboBox de aviones, localizaciones y vuelos a modelos
+     * compartidos que se cargan en bloque la primera vez que se abre su lista
+     * y que reciben los IDs nuevos por los eventos de cambio.
+     */
+    private void installComboModels() {
+        planeIds    = new LazyComboBoxModel.Source(() -> idsOf(planeController.getPlaneIds()));
+        locationIds = new LazyComboBoxModel.Source(() -> idsOf(locationController.getLocationIds()));
+        flightIds   = new LazyComboBoxModel.Source(() -> idsOf(flightController.getFlightIds()));
+
+        new LazyComboBoxModel("Plane", planeIds).install(comboFlightPlane);
+        new LazyComboBoxModel("Location", locationIds).install(comboFlightDepartureLocation);
+        new LazyComboBoxModel("Location", locationIds).install(comboFlightArrivalLocation);
+        new LazyComboBoxModel("Location", locationIds).install(comboFlightScaleLocation);
+        new LazyComboBoxModel("Flight", flightIds).install(comboFlight_AddToFlight);
+        new LazyComboBoxModel("ID", flightIds).install(comboFlightId_DelayFlight);
+    }
+
+    private static List<String> idsOf(Response<List<String>> resp) {
+        return resp.isSuccess() ? resp.getData() : List.of();
+    }
+
+    /**
+     * Turns comboSelectUser into a type-ahead field: typing an id or name
+     * prefix lists the top matches from the passenger search index instead
+     * of holding every passenger id in the combo.
+     */
+    private void installUserSearch() {
+        comboSelectUser.setEditable(true);
+        javax.swing.JTextField editor = (javax.swing.JTextField) comboSelectUser.getEditor().getEditorComponent();
+        userSearchTimer = new javax.swing.Timer(150, e -> searchUsers(editor.getText()));
+        userSearchTimer.setRepeats(false);
+        editor.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                if (!updatingUserSearch) userSearchTimer.restart();
             }
-        }
 
-        // 3) Localizaciones → comboFlightDepartureLocation, comboFlightArrivalLocation, comboFlightScaleLocation
-        Response<List<Location>> rloc = locationController.getAllLocations();
-        if (rloc.isSuccess()) {
-            for (Location loc : rloc.getData()) {
-                String id = loc.getAirportId();
-                comboFlightDepartureLocation.addItem(id);
-                comboFlightArrivalLocation .addItem(id);
-                comboFlightScaleLocation   .addItem(id);
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                if (!updatingUserSearch) userSearchTimer.restart();
             }
-        }
 
-        // 4) Vuelos → comboFlight_AddToFlight, comboFlightId_DelayFlight
-        Response<List<Flight>> rfl = flightController.getAllFlights();
-        if (rfl.isSuccess()) {
-            for (Flight f : rfl.getData()) {
-                String id = f.getId();
-                comboFlight_AddToFlight   .addItem(id);
-                comboFlightId_DelayFlight .addItem(id);
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
             }
+        });
+        searchUsers("");
+    }
+
+    private void searchUsers(String text) {
+        Object selected = comboSelectUser.getSelectedItem();
+        if (selected != null && text.equals(selected.toString()) && !text.isEmpty()) {
+            return; // the text came from picking an item, not from typing
+        }
+        Response<List<Passenger>> resp = passengerController.searchPassengers(text, USER_SEARCH_LIMIT);
+        if (!resp.isSuccess()) return;
+
+        javax.swing.DefaultComboBoxModel<String> model = new javax.swing.DefaultComboBoxModel<>();
+        model.addElement("Select User");
+        for (Passenger p : resp.getData()) {
+            model.addElement(String.valueOf(p.getId()));
+        }
+        updatingUserSearch = true;
+        try {
+            comboSelectUser.setModel(model);
+            comboSelectUser.getEditor().setItem(text);
+        } finally {
+            updatingUserSearch = false;
+        }
+        if (comboSelectUser.isShowing() && !text.isEmpty()) {
+            comboSelectUser.showPopup();
         }
     }
 
@@ -1576,8 +1843,6 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
                 txtPassengerPhoneCode.setText("");
                 txtPassengerPhoneNumber.setText("");
                 txtPassengerCountry.setText("");
-                // actualizar combo Admin
-                comboSelectUser.addItem(String.valueOf(resp.getData().getId()));
             } else {
                 JOptionPane.showMessageDialog(this,
                         resp.getMessage(),
@@ -1618,8 +1883,6 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
                 txtPlaneModel.setText("");
                 txtPlaneMaxCapacity.setText("");
                 txtPlaneAirline.setText("");
-                // combo Vuelo
-                comboFlightPlane.addItem(resp.getData().getId());
             } else {
                 JOptionPane.showMessageDialog(this,
                         resp.getMessage(),
@@ -1662,10 +1925,6 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
                 txtLocationAirportCountry.setText("");
                 txtLocationAirportLatitude.setText("");
                 txtLocationAirportLongitude.setText("");
-                // combos Flight
-                comboFlightDepartureLocation.addItem(resp.getData().getAirportId());
-                comboFlightArrivalLocation  .addItem(resp.getData().getAirportId());
-                comboFlightScaleLocation    .addItem(resp.getData().getAirportId());
             } else {
                 JOptionPane.showMessageDialog(this,
                         resp.getMessage(),
@@ -1725,9 +1984,6 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
                 comboFlightArrivalDurationMinute .setSelectedIndex(0);
                 comboFlightScaleDurationHour     .setSelectedIndex(0);
                 comboFlightScaleDurationMinute   .setSelectedIndex(0);
-                // combos Add & Delay
-                comboFlight_AddToFlight   .addItem(resp.getData().getId());
-                comboFlightId_DelayFlight .addItem(resp.getData().getId());
             } else {
                 JOptionPane.showMessageDialog(this,
                         resp.getMessage(),
@@ -1757,11 +2013,14 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
             long ph     = Long.parseLong(txtUpdatePassengerPhoneNumber.getText());
             String ctr  = txtUpdatePassengerCountry.getText();
 
-            Response<Passenger> resp = passengerController.updatePassenger(
-                    id, fn, ln, y, m, d, code, ph, ctr
-            );
+            // Only overwrite the version this user loaded; a concurrent edit yields CONFLICT
+            Response<Passenger> resp = selectedPassenger != null && selectedPassenger.getId() == id
+                    ? passengerController.updatePassenger(id, fn, ln, y, m, d, code, ph, ctr,
+                            selectedPassenger.getVersion())
+                    : passengerController.updatePassenger(id, fn, ln, y, m, d, code, ph, ctr);
 
             if (resp.isSuccess()) {
+                selectedPassenger = resp.getData();
                 JOptionPane.showMessageDialog(this,
                         resp.getMessage(),
                         "Éxito",
@@ -1843,159 +2102,63 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
                         "Por favor, seleccione un usuario para ver sus vuelos.",
                         "Usuario no seleccionado",
                         JOptionPane.WARNING_MESSAGE);
-                DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-                model.setRowCount(0); // Clear table if no user is selected
+                myFlightsTableModel.clear(); // Clear table if no user is selected
                 return;
             }
             long pid = Long.parseLong(comboSelectUser.getItemAt(comboSelectUser.getSelectedIndex()));
-            Response<List<Flight>> resp = flightController.getFlightsByPassenger(pid);
-            if (resp.isSuccess()) {
-                DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-                model.setRowCount(0);
-                for (Flight f : resp.getData()) {
-                    model.addRow(new Object[]{
-                            f.getId(),
-                            f.getDepartureDate(),
-                            f.calculateArrivalDate()
+            refreshInBackground(myFlightsTableModel,
+                    () -> flightController.getFlightsByPassenger(pid),
+                    resp -> {
+                        // The table is cleared on error; only report errors other than NOT_FOUND
+                        if (resp.getStatus() != StatusCode.NOT_FOUND) {
+                            showRefreshError(resp, "Error al obtener mis vuelos");
+                        }
                     });
-                }
-            } else {
-                DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-                model.setRowCount(0); // Clear table on error too or if passenger has no flights
-                // Optionally show error only if it's not a NOT_FOUND for a passenger with no flights
-                if (resp.getStatus() != StatusCode.NOT_FOUND && !(resp.getStatus() == StatusCode.OK && resp.getData().isEmpty())) {
-                    JOptionPane.showMessageDialog(this,
-                            resp.getMessage(),
-                            "Error al obtener mis vuelos",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this,
                     "Seleccione un Pasajero válido",
                     "Error de formato",
                     JOptionPane.ERROR_MESSAGE
             );
-            DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-            model.setRowCount(0);
+            myFlightsTableModel.clear();
         }  catch (ArrayIndexOutOfBoundsException ex) {
             // This can happen if "Select User" (index 0) is chosen and parsing is attempted.
             JOptionPane.showMessageDialog(this,
                     "Por favor, seleccione un usuario válido de la lista.",
                     "Usuario no válido",
                     JOptionPane.WARNING_MESSAGE);
-            DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-            model.setRowCount(0);
+            myFlightsTableModel.clear();
         }
     }
     //GEN-LAST:event_btnRefreshMyFlightsActionPerformed
 
     private void btnRefreshAllPassengersActionPerformed(java.awt.event.ActionEvent evt) {
-        Response<List<Passenger>> resp = passengerController.getAllPassengers();
-        if (resp.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) tableAllPassengers.getModel();
-            model.setRowCount(0);
-            for (Passenger p : resp.getData()) {
-                model.addRow(new Object[]{
-                        p.getId(),
-                        p.getFullname(),
-                        p.getBirthDate(),
-                        p.calculateAge(),
-                        p.generateFullPhone(),
-                        p.getCountry(),
-                        p.getNumFlights()
-                });
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    resp.getMessage(),
-                    "Error al obtener pasajeros",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
+        refreshInBackground(passengerTableModel,
+                passengerController::getPassengersView,
+                resp -> showRefreshError(resp, "Error al obtener pasajeros"));
     }
     //GEN-LAST:event_btnRefreshAllPassengersActionPerformed
 
     private void btnRefreshAllFlightsActionPerformed(java.awt.event.ActionEvent evt) {
-        Response<List<Flight>> resp = flightController.getAllFlights();
-        if (resp.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) tableAllFlights.getModel();
-            model.setRowCount(0);
-            for (Flight f : resp.getData()) {
-                model.addRow(new Object[]{
-                        f.getId(),
-                        f.getDepartureLocation().getAirportId(),
-                        f.getArrivalLocation().getAirportId(),
-                        f.getScaleLocation() == null ? "" : f.getScaleLocation().getAirportId(),
-                        f.getDepartureDate(),
-                        f.calculateArrivalDate(),
-                        f.getPlane().getId(),
-                        f.getNumPassengers()
-                });
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    resp.getMessage(),
-                    "Error al obtener vuelos",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
+        refreshInBackground(flightTableModel,
+                flightController::getFlightsView,
+                resp -> showRefreshError(resp, "Error al obtener vuelos"));
     }
     //GEN-LAST:event_btnRefreshAllFlightsActionPerformed
 
     private void btnRefreshAllPlanesActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnRefreshAllPlanesActionPerformed
-        // 1) Invocar al controller
-        Response<List<Plane>> resp = planeController.getAllPlanes();
-
-        // 2) Procesar respuesta
-        if (resp.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) tableAllPlanes.getModel();
-            model.setRowCount(0);
-
-            for (Plane plane : resp.getData()) {
-                model.addRow(new Object[]{
-                        plane.getId(),
-                        plane.getBrand(),
-                        plane.getModel(),
-                        plane.getMaxCapacity(),
-                        plane.getAirline(),
-                        plane.getNumFlights()
-                });
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    resp.getMessage(),
-                    "Error al obtener aviones",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
+        // Consulta al controller en segundo plano; el worker publica el resultado completo en done()
+        refreshInBackground(planeTableModel,
+                planeController::getPlanesView,
+                resp -> showRefreshError(resp, "Error al obtener aviones"));
     }//GEN-LAST:event_btnRefreshAllPlanesActionPerformed
 
 
     private void btnRefreshAllLocationsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnRefreshAllLocationsActionPerformed
-        // 1) Invocar al controller
-        Response<List<Location>> resp = locationController.getAllLocations();
-
-        // 2) Procesar respuesta
-        if (resp.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) tableAllLocations.getModel();
-            model.setRowCount(0);
-
-            for (Location loc : resp.getData()) {
-                model.addRow(new Object[]{
-                        loc.getAirportId(),
-                        loc.getAirportName(),
-                        loc.getAirportCity(),
-                        loc.getAirportCountry()
-                });
-            }
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    resp.getMessage(),
-                    "Error al obtener localizaciones",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
+        // Consulta al controller en segundo plano; el worker publica el resultado completo en done()
+        refreshInBackground(locationTableModel,
+                locationController::getLocationsView,
+                resp -> showRefreshError(resp, "Error al obtener localizaciones"));
     }//GEN-LAST:event_btnRefreshAllLocationsActionPerformed
 
 
@@ -2004,29 +2167,30 @@ public class AirportFrame extends javax.swing.JFrame implements Observer { // Im
     }//GEN-LAST:event_jButton13ActionPerformed
 
     private void comboSelectUserActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_comboSelectUserActionPerformed
+        if (updatingUserSearch) return; // model swapped by the type-ahead search
         try {
             String id = comboSelectUser.getSelectedItem().toString();
             if (! id.equals(comboSelectUser.getItemAt(0))) { // Check if "Select User" is not selected
                 txtUpdatePassengerId.setText(id);
                 txtPassengerId_AddToFlight.setText(id);
-                // Automatically refresh "My Flights" if the tab is visible for the selected user
-                if (radioUserTypeUser.isSelected() && jTabbedPane1.getSelectedComponent() == panelShowMyFlights) {
-                    btnRefreshMyFlightsActionPerformed(null);
-                }
+                Response<Passenger> selected = passengerController.getPassenger(Long.parseLong(id));
+                selectedPassenger = selected.isSuccess() ? selected.getData() : null;
+                // Refresh "My Flights" now if visible, otherwise when the tab is next shown
+                refreshWhenVisible(panelShowMyFlights);
             }
             else{
+                selectedPassenger = null;
                 txtUpdatePassengerId.setText("");
                 txtPassengerId_AddToFlight.setText("");
                 // Clear "My Flights" table if "Select User" is chosen
-                DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-                model.setRowCount(0);
+                myFlightsTableModel.clear();
             }
         } catch (Exception e) {
             // Catch potential null pointer if item is null, though unlikely with current setup
+            selectedPassenger = null;
             txtUpdatePassengerId.setText("");
             txtPassengerId_AddToFlight.setText("");
-            DefaultTableModel model = (DefaultTableModel) tableMyFlights.getModel();
-            model.setRowCount(0);
+            myFlightsTableModel.clear();
         }
     }//GEN-LAST:event_comboSelectUserActionPerformed
 
@@ -0,0 +1,92 @@
+package airport.view;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla que lee sus filas directamente de la vista de lista que da
+ * un controller. Al reemplazar las filas no se copia nada; cada celda se
+ * calcula a partir de su entidad solo cuando la tabla la pide, es decir, en la
+ * práctica solo para las filas visibles.
+ *
+ * @param <T> entidad de cada fila
+ */
+public class EntityTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] columnNames;
+    private final List<Function<T, Object>> columns;
+    private List<T> rows = Collections.emptyList();
+    private int rowCount;
+
+    // la última entidad leída, para que las celdas de una fila compartan una sola búsqueda
+    private int cachedRow = -1;
+    private T cachedEntity;
+
+    public EntityTableModel(String[] columnNames, List<Function<T, Object>> columns) {
+        if (columnNames.length != columns.size())
+            throw new IllegalArgumentException("Los nombres de columna y los accesores no coinciden en número");
+        this.columnNames = columnNames.clone();
+        this.columns = List.copyOf(columns);
+    }
+
+    /** Reemplaza las filas por {@code rows} en O(1) y lanza un único evento. */
+    public void setRows(List<T> rows) {
+        this.rows = rows == null ? Collections.emptyList() : rows;
+        this.rowCount = this.rows.size();
+        invalidateCache();
+        fireTableDataChanged();
+    }
+
+    /** Quita todas las filas. */
+    public void clear() {
+        setRows(null);
+    }
+
+    /**
+     * Repinta las filas sin reemplazarlas, para entidades que cambiaron en su
+     * sitio. La tabla solo vuelve a leer las filas visibles.
+     */
+    public void rowsChanged() {
+        invalidateCache();
+        if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+    }
+
+    public T getEntityAt(int row) {
+        if (row != cachedRow) {
+            cachedEntity = rows.get(row);
+            cachedRow = row;
+        }
+        return cachedEntity;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return columns.get(columnIndex).apply(getEntityAt(rowIndex));
+    }
+
+    private void invalidateCache() {
+        cachedRow = -1;
+        cachedEntity = null;
+    }
+}
@@ -0,0 +1,134 @@
+package airport.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+/**
+ * Modelo de combo que muestra un texto inicial seguido de los IDs de un
+ * {@link Source} compartido. Los IDs se cargan con una sola consulta la
+ * primera vez que algún combo de esa fuente abre su lista, y los nuevos se
+ * añaden al crearse; así varios combos (p. ej. localización de salida, de
+ * llegada y de escala) comparten una lista y cada uno guarda su selección.
+ */
+public class LazyComboBoxModel extends AbstractListModel<String> implements ComboBoxModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String placeholder;
+    private final Source source;
+    private Object selected;
+
+    public LazyComboBoxModel(String placeholder, Source source) {
+        this.placeholder = placeholder;
+        this.source = source;
+        this.selected = placeholder;
+        source.models.add(this);
+    }
+
+    /** Pone este modelo en {@code combo} y carga los IDs la primera vez que abre su lista. */
+    public void install(JComboBox<String> combo) {
+        combo.setModel(this);
+        combo.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                source.ensureLoaded();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+    }
+
+    @Override
+    public int getSize() {
+        return 1 + source.ids.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return index == 0 ? placeholder : source.ids.get(index - 1);
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (!Objects.equals(selected, item)) {
+            selected = item;
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selected;
+    }
+
+    private void idsAdded(int first, int last) {
+        fireIntervalAdded(this, first + 1, last + 1);
+    }
+
+    private void idRemoved(int index, String id) {
+        if (Objects.equals(selected, id)) {
+            selected = placeholder;
+            fireContentsChanged(this, -1, -1);
+        }
+        fireIntervalRemoved(this, index + 1, index + 1);
+    }
+
+    /**
+     * Lista de IDs compartida por varios {@link LazyComboBoxModel}, que se
+     * llena bajo demanda con una sola consulta.
+     */
+    public static class Source {
+        private final Supplier<List<String>> loader;
+        private final List<LazyComboBoxModel> models = new ArrayList<>();
+        private List<String> ids = new ArrayList<>();
+        private boolean loaded;
+
+        public Source(Supplier<List<String>> loader) {
+            this.loader = loader;
+        }
+
+        public void ensureLoaded() {
+            if (loaded) return;
+            loaded = true;
+            ids = new ArrayList<>(loader.get());
+            if (!ids.isEmpty()) {
+                for (LazyComboBoxModel m : models) {
+                    m.idsAdded(0, ids.size() - 1);
+                }
+            }
+        }
+
+        /** Quita un ID borrado; los combos que lo tenían seleccionado vuelven al texto inicial. */
+        public void remove(String id) {
+            if (!loaded) return;
+            int index = ids.indexOf(id);
+            if (index < 0) return;
+            ids.remove(index);
+            for (LazyComboBoxModel m : models) {
+                m.idRemoved(index, id);
+            }
+        }
+
+        /** Añade un ID recién creado; antes de la primera carga ya lo traerá la consulta. */
+        public void add(String id) {
+            if (!loaded) return;
+            ids.add(id);
+            for (LazyComboBoxModel m : models) {
+                m.idsAdded(ids.size() - 1, ids.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package airport.view;
+
+import airport.response.Response;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingWorker;
+
+/**
+ * Runs a controller query off the Event Dispatch Thread and hands the result
+ * to an {@link EntityTableModel}. The controllers return lazy list views and
+ * the model computes cells only for the rows the table paints, so binding the
+ * whole list at once keeps the EDT work bounded by what is on screen. A worker
+ * that was cancelled because a newer refresh started never touches the model.
+ *
+ * @param <T> entity shown in each row
+ */
+public class TableRefreshWorker<T> extends SwingWorker<Response<List<T>>, Void> {
+
+    private final Supplier<Response<List<T>>> query;
+    private final EntityTableModel<T> model;
+    private final Consumer<Response<List<T>>> onFailure;
+    private final Runnable onFinish;
+
+    /**
+     * @param query     controller call, executed on a background thread
+     * @param model     table model that receives the rows on the EDT
+     * @param onFailure called on the EDT when the response is not successful
+     * @param onFinish  called on the EDT once the worker ends, even if cancelled
+     */
+    public TableRefreshWorker(Supplier<Response<List<T>>> query,
+                              EntityTableModel<T> model,
+                              Consumer<Response<List<T>>> onFailure,
+                              Runnable onFinish) {
+        this.query = query;
+        this.model = model;
+        this.onFailure = onFailure;
+        this.onFinish = onFinish;
+    }
+
+    @Override
+    protected Response<List<T>> doInBackground() {
+        return query.get();
+    }
+
+    @Override
+    protected void done() {
+        try {
+            if (isCancelled()) return;
+            Response<List<T>> resp = get();
+            if (!resp.isSuccess() || resp.getData() == null) {
+                model.clear();
+                onFailure.accept(resp);
+            } else {
+                model.setRows(resp.getData());
+            }
+        } catch (InterruptedException | CancellationException e) {
+            // a newer refresh replaced this one
+        } catch (ExecutionException e) {
+            model.clear();
+            e.getCause().printStackTrace();
+        } finally {
+            onFinish.run();
+        }
+    }
+}
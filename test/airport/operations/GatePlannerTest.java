@@ -0,0 +1,154 @@
+package airport.operations;
+
+import airport.model.Flight;
+import airport.model.Location;
+import airport.model.Plane;
+import airport.observer.ChangeEvent;
+import airport.observer.ChangeType;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Replanificación incremental de {@link GatePlanner}: tras cada retraso, alta
+ * o baja el plan debe ser el mismo que el de un recorrido completo desde
+ * cero, y los movimientos anteriores al cambio no deben cambiar de puerta.
+ */
+public class GatePlannerTest {
+
+    private static final int BEFORE_DEPARTURE = 45;
+    private static final int AFTER_ARRIVAL = 30;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 0, 0);
+    private static final String[] AIRPORTS = {"HUB", "OUT"};
+
+    private final Plane plane = new Plane("XX00001", "Boeing", "777", 300, "Avianca");
+    private final Location hub = new Location("HUB", "Hub", "Bogota", "Colombia", 4.7, -74.1);
+    private final Location out = new Location("OUT", "Out", "Medellin", "Colombia", 6.2, -75.4);
+
+    private Map<String, Flight> flights;
+    private GatePlanner planner;
+    private Random random;
+    private int created;
+
+    @Before
+    public void setUp() {
+        flights = new HashMap<>();
+        planner = new GatePlanner(id -> Optional.ofNullable(flights.get(id)), BEFORE_DEPARTURE, AFTER_ARRIVAL);
+        random = new Random(45);
+        created = 0;
+        for (int i = 0; i < 300; i++) insert();
+    }
+
+    @Test
+    public void initialPlanMatchesFreshSweep() {
+        assertMatchesFreshSweep();
+    }
+
+    @Test
+    public void randomChangesMatchFreshSweep() {
+        for (int step = 0; step < 400; step++) {
+            randomChange();
+            // sometimes several changes pile up before the next query
+            if (random.nextInt(3) == 0) assertMatchesFreshSweep();
+        }
+        assertMatchesFreshSweep();
+    }
+
+    @Test
+    public void movementsBeforeChangeKeepTheirGates() {
+        for (int step = 0; step < 200; step++) {
+            Map<String, List<GateAssignment>> before = new HashMap<>();
+            for (String airport : AIRPORTS) before.put(airport, planner.plan(airport));
+
+            long changedFrom = randomChange();
+
+            for (String airport : AIRPORTS) {
+                Map<String, Integer> gates = new HashMap<>();
+                for (GateAssignment g : planner.plan(airport)) gates.put(key(g), g.getGate());
+                for (GateAssignment g : before.get(airport)) {
+                    if (minute(g.getStart()) >= changedFrom) continue;
+                    assertEquals(key(g), Integer.valueOf(g.getGate()), gates.get(key(g)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deleteEverythingLeavesNoGates() {
+        for (String id : new ArrayList<>(flights.keySet())) {
+            flights.remove(id);
+            planner.onChange(ChangeEvent.of("flight", ChangeType.DELETED, id));
+        }
+        for (String airport : AIRPORTS) {
+            assertTrue(planner.plan(airport).isEmpty());
+            assertEquals(0, planner.gatesNeeded(airport));
+        }
+    }
+
+    /** Aplica un retraso, alta o baja al azar y devuelve el primer minuto afectado. */
+    private long randomChange() {
+        int op = random.nextInt(4);
+        if (op == 0 || flights.isEmpty()) {
+            return firstMinute(insert());
+        }
+        List<String> ids = new ArrayList<>(flights.keySet());
+        String id = ids.get(random.nextInt(ids.size()));
+        Flight old = flights.get(id);
+        if (op == 1) {
+            flights.remove(id);
+            planner.onChange(ChangeEvent.of("flight", ChangeType.DELETED, id));
+            return firstMinute(old);
+        }
+        Flight delayed = new Flight(old, 0);
+        delayed.delay(random.nextInt(3), 1 + random.nextInt(59));
+        flights.put(id, delayed);
+        planner.onChange(ChangeEvent.of("flight", ChangeType.DELAYED, id));
+        return Math.min(firstMinute(old), firstMinute(delayed));
+    }
+
+    private Flight insert() {
+        String id = String.format("AB%04d", created++);
+        boolean outbound = random.nextBoolean();
+        Flight f = new Flight(id, plane, outbound ? hub : out, outbound ? out : hub,
+                BASE.plusMinutes(random.nextInt(2 * 24 * 60)), random.nextInt(4), random.nextInt(60));
+        flights.put(id, f);
+        planner.onChange(ChangeEvent.of("flight", ChangeType.CREATED, id));
+        return f;
+    }
+
+    private void assertMatchesFreshSweep() {
+        GatePlanner fresh = new GatePlanner(id -> Optional.ofNullable(flights.get(id)), BEFORE_DEPARTURE, AFTER_ARRIVAL);
+        fresh.onChange(ChangeEvent.of("flight", ChangeType.CREATED, new ArrayList<>(flights.keySet())));
+        for (String airport : AIRPORTS) {
+            assertEquals(describe(fresh.plan(airport)), describe(planner.plan(airport)));
+            assertEquals(fresh.gatesNeeded(airport), planner.gatesNeeded(airport));
+        }
+    }
+
+    /** Primer minuto en que el vuelo ocupa una puerta en cualquier aeropuerto. */
+    private static long firstMinute(Flight f) {
+        return Math.min(f.getDepartureMinute() - BEFORE_DEPARTURE, f.getArrivalMinute());
+    }
+
+    private static List<String> describe(List<GateAssignment> plan) {
+        List<String> result = new ArrayList<>(plan.size());
+        for (GateAssignment g : plan) result.add(key(g) + " " + g.getStart() + "-" + g.getEnd() + " #" + g.getGate());
+        return result;
+    }
+
+    private static String key(GateAssignment g) {
+        return g.getFlightId() + (g.isArrival() ? "/llegada" : "/salida");
+    }
+
+    private static long minute(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
@@ -0,0 +1,198 @@
+package airport.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Borrados, contadores y compactación de {@link BookingIndex}: tras compactar
+ * no debe quedar ninguna referencia muerta y los contadores deben coincidir
+ * con las reservas vivas.
+ */
+public class BookingIndexTest {
+
+    private static final int CAPACITY = 1000;
+
+    private BookingIndex index;
+
+    @Before
+    public void setUp() {
+        index = new BookingIndex();
+    }
+
+    @Test
+    public void deleteFlightLeavesTombstonesUntilCompaction() {
+        index.addFlight("ABC001", "P1");
+        index.book("ABC001", 1, CAPACITY);
+        index.book("ABC001", 2, CAPACITY);
+
+        assertArrayEquals(new long[]{1, 2}, index.removeFlight("ABC001"));
+        // one dead reference in each passenger's list and one in the plane's
+        assertEquals(3, index.getTombstones());
+        assertEquals(0, index.countFlights(1));
+        assertEquals(0, index.countPlaneFlights("P1"));
+        assertTrue(index.flightsOf(1).isEmpty());
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+    }
+
+    @Test
+    public void deadOnBothSides() {
+        index.addFlight("ABC001", "P1");
+        index.book("ABC001", 1, CAPACITY);
+
+        index.removeFlight("ABC001");
+        assertEquals(2, index.getTombstones());
+        // the passenger's list goes away with its dead reference to the flight
+        assertEquals(List.of(), index.removePassenger(1));
+        assertEquals(1, index.getTombstones());
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+        assertEquals(0, index.countPassengers("ABC001"));
+        assertEquals(0, index.countFlights(1));
+    }
+
+    @Test
+    public void deadOnBothSidesPassengerFirst() {
+        index.addFlight("ABC001", "P1");
+        index.book("ABC001", 1, CAPACITY);
+
+        assertEquals(List.of("ABC001"), index.removePassenger(1));
+        assertEquals(1, index.getTombstones());
+        assertEquals(0, index.countPassengers("ABC001"));
+        assertArrayEquals(new long[0], index.removeFlight("ABC001"));
+        // the passenger reference left with the flight; only the plane's remains
+        assertEquals(1, index.getTombstones());
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+    }
+
+    @Test
+    public void retirePlaneDropsItsDeadReferences() {
+        index.addFlight("ABC001", "P1");
+        index.addFlight("ABC002", "P1");
+        index.removeFlight("ABC001");
+        index.removeFlight("ABC002");
+        assertEquals(2, index.getTombstones());
+        assertEquals(0, index.countPlaneFlights("P1"));
+
+        index.removePlane("P1");
+        assertEquals(0, index.getTombstones());
+        assertTrue(index.flightsOfPlane("P1").isEmpty());
+        index.compact();
+        assertEquals(0, index.getTombstones());
+    }
+
+    @Test
+    public void retirePlaneAfterCompaction() {
+        index.addFlight("ABC001", "P1");
+        index.removeFlight("ABC001");
+        index.compact();
+        assertEquals(0, index.getTombstones());
+
+        index.removePlane("P1");
+        assertEquals(0, index.getTombstones());
+
+        // a plane with the same ID starts from an empty slot
+        index.addFlight("ABC002", "P1");
+        assertEquals(1, index.countPlaneFlights("P1"));
+        assertEquals(List.of("ABC002"), index.flightsOfPlane("P1"));
+    }
+
+    @Test
+    public void deletedFlightIdGetsFreshSlot() {
+        index.addFlight("ABC001", "P1");
+        index.book("ABC001", 1, CAPACITY);
+        index.removeFlight("ABC001");
+
+        index.addFlight("ABC001", "P1");
+        assertEquals(0, index.countPassengers("ABC001"));
+        assertFalse(index.isBooked("ABC001", 1));
+        assertArrayEquals(new long[0], index.passengersOf("ABC001"));
+        assertEquals(1, index.countPlaneFlights("P1"));
+
+        assertEquals(BookingIndex.Outcome.BOOKED, index.book("ABC001", 1, CAPACITY));
+        assertEquals(List.of("ABC001"), index.flightsOf(1));
+        assertEquals(1, index.countFlights(1));
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+        assertEquals(List.of("ABC001"), index.flightsOf(1));
+        assertEquals(List.of("ABC001"), index.flightsOfPlane("P1"));
+    }
+
+    @Test
+    public void deletedPassengerIdGetsFreshSlot() {
+        index.addFlight("ABC001", "P1");
+        index.book("ABC001", 1, CAPACITY);
+        index.removePassenger(1);
+
+        assertEquals(BookingIndex.Outcome.BOOKED, index.book("ABC001", 1, CAPACITY));
+        assertEquals(1, index.countPassengers("ABC001"));
+        assertArrayEquals(new long[]{1}, index.passengersOf("ABC001"));
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+        assertArrayEquals(new long[]{1}, index.passengersOf("ABC001"));
+    }
+
+    @Test
+    public void randomOperationsMatchModel() {
+        Random random = new Random(41);
+        Map<String, Set<Long>> model = new HashMap<>();
+        Map<String, String> planeOf = new HashMap<>();
+        List<String> flights = new ArrayList<>();
+        for (int i = 0; i < 50; i++) flights.add(String.format("ABC%03d", i));
+
+        for (int step = 0; step < 20_000; step++) {
+            String flight = flights.get(random.nextInt(flights.size()));
+            long passenger = 1 + random.nextInt(200);
+            int op = random.nextInt(20);
+            if (op == 0) {
+                index.removeFlight(flight);
+                model.remove(flight);
+                planeOf.remove(flight);
+            } else if (op == 1) {
+                index.removePassenger(passenger);
+                for (Set<Long> booked : model.values()) booked.remove(passenger);
+            } else if (!model.containsKey(flight)) {
+                String plane = "P" + random.nextInt(5);
+                index.addFlight(flight, plane);
+                model.put(flight, new HashSet<>());
+                planeOf.put(flight, plane);
+            } else {
+                index.book(flight, passenger, CAPACITY);
+                model.get(flight).add(passenger);
+            }
+            if (step % 5_000 == 0) index.compact();
+        }
+
+        index.compact();
+        assertEquals(0, index.getTombstones());
+        for (String flight : flights) {
+            Set<Long> booked = model.getOrDefault(flight, Set.of());
+            assertEquals(flight, booked.size(), index.countPassengers(flight));
+            for (long passenger : index.passengersOf(flight)) assertTrue(booked.contains(passenger));
+        }
+        for (long passenger = 1; passenger <= 200; passenger++) {
+            long expected = 0;
+            for (Set<Long> booked : model.values()) if (booked.contains(passenger)) expected++;
+            assertEquals(expected, index.countFlights(passenger));
+            assertEquals(expected, index.flightsOf(passenger).size());
+        }
+        for (int p = 0; p < 5; p++) {
+            long expected = planeOf.values().stream().filter(("P" + p)::equals).count();
+            assertEquals(expected, index.countPlaneFlights("P" + p));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package airport.storage;
+
+import airport.model.Flight;
+import airport.model.Location;
+import airport.model.Plane;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Los cuatro índices de {@link FlightRepository} (salida, ID, origen y
+ * destino) contra un modelo simple tras altas, retrasos, lotes, borrados y
+ * restauraciones.
+ */
+public class FlightRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private final Plane plane = new Plane("XX00001", "Airbus", "A320", 180, "Avianca");
+    private final Location[] locations = {
+            new Location("BOG", "El Dorado", "Bogota", "Colombia", 4.7, -74.1),
+            new Location("MDE", "Jose Maria Cordova", "Medellin", "Colombia", 6.2, -75.4),
+            new Location("CLO", "Alfonso Bonilla Aragon", "Cali", "Colombia", 3.5, -76.4)
+    };
+
+    private FlightRepository repository;
+    private Map<String, Flight> model;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        repository = new FlightRepository();
+        model = new HashMap<>();
+        random = new Random(38);
+    }
+
+    @Test
+    public void updateBumpsVersionAndMovesFlight() {
+        Flight f = flight("ABC001", 600);
+        repository.save(f);
+        assertEquals(1, f.getVersion());
+
+        Flight delayed = new Flight(f, 0);
+        delayed.delay(2, 0);
+        repository.update(delayed);
+        assertEquals(2, delayed.getVersion());
+        assertSame(delayed, repository.findById("ABC001").get());
+        assertEquals(List.of(delayed), repository.findDepartures(f.getDepartureMinute() + 120, f.getDepartureMinute() + 120));
+        assertTrue(repository.findDepartures(f.getDepartureMinute(), f.getDepartureMinute()).isEmpty());
+        // the published flight keeps its fields
+        assertEquals(0, f.getDelayMinutes());
+    }
+
+    @Test
+    public void staleVersionIsRejected() {
+        Flight f = flight("ABC001", 600);
+        repository.save(f);
+        assertTrue(repository.update(new Flight(f, 0), 1).isPresent());
+        assertFalse(repository.update(new Flight(f, 0), 1).isPresent());
+    }
+
+    @Test
+    public void snapshotIgnoresLaterWrites() {
+        for (int i = 0; i < 50; i++) save(flight(String.format("ABC%03d", i), random.nextInt(3_000)));
+        List<Flight> snapshot = repository.view();
+        List<Flight> copy = new ArrayList<>(snapshot);
+        for (int i = 0; i < 25; i++) repository.delete(String.format("ABC%03d", i));
+        repository.save(flight("XYZ999", 10));
+        assertEquals(copy, new ArrayList<>(snapshot));
+    }
+
+    @Test
+    public void randomWritesKeepIndexesInStep() {
+        for (int step = 0; step < 3_000; step++) {
+            String id = String.format("ABC%03d", random.nextInt(300));
+            switch (random.nextInt(5)) {
+                case 0:
+                    repository.delete(id);
+                    model.remove(id);
+                    break;
+                case 1:
+                    if (model.containsKey(id)) {
+                        Flight delayed = new Flight(model.get(id), 0);
+                        delayed.delay(random.nextInt(5), random.nextInt(60));
+                        repository.update(delayed);
+                        model.put(id, delayed);
+                    }
+                    break;
+                case 2:
+                    List<Flight> batch = new ArrayList<>();
+                    for (int i = 0; i < 1 + random.nextInt(80); i++) {
+                        batch.add(flight(String.format("ABC%03d", random.nextInt(300)), random.nextInt(10_000)));
+                    }
+                    repository.updateAll(batch);
+                    // a repeated ID keeps the last flight
+                    for (Flight f : batch) model.put(f.getId(), f);
+                    break;
+                case 3:
+                    Flight previous = model.get(id);
+                    Flight replaced = flight(id, random.nextInt(10_000));
+                    repository.save(replaced);
+                    // restoring puts back the flight that was there, or removes the new one
+                    repository.restore(id, previous);
+                    break;
+                default:
+                    save(flight(id, random.nextInt(10_000)));
+            }
+            if (step % 100 == 0) assertMatchesModel();
+        }
+        assertMatchesModel();
+    }
+
+    private void assertMatchesModel() {
+        List<Flight> expected = model.values().stream()
+                .sorted(Comparator.comparingLong(Flight::getDepartureMinute).thenComparing(Flight::getId))
+                .collect(Collectors.toList());
+        assertEquals(expected, repository.findAll());
+        for (Map.Entry<String, Flight> e : model.entrySet()) {
+            assertSame(e.getValue(), repository.findById(e.getKey()).get());
+        }
+
+        long from = minute(random.nextInt(10_000)), to = from + random.nextInt(3_000);
+        assertEquals(filter(expected, null, from, to), repository.findDepartures(from, to));
+        for (Location l : locations) {
+            String id = l.getAirportId();
+            assertEquals(filter(expected, id, from, to), repository.findDepartures(id, from, to));
+            List<Flight> limited = repository.findDepartures(id, from, to, 3);
+            List<Flight> all = filter(expected, id, from, to);
+            assertEquals(all.subList(0, Math.min(3, all.size())), limited);
+
+            List<Flight> arrivals = model.values().stream()
+                    .filter(f -> f.getArrivalLocation().getAirportId().equals(id))
+                    .filter(f -> f.getArrivalMinute() >= from && f.getArrivalMinute() <= to)
+                    .sorted(Comparator.comparingLong(Flight::getArrivalMinute).thenComparing(Flight::getId))
+                    .collect(Collectors.toList());
+            assertEquals(arrivals, repository.findArrivals(id, from, to, Integer.MAX_VALUE));
+        }
+    }
+
+    private static List<Flight> filter(List<Flight> byDeparture, String origin, long from, long to) {
+        return byDeparture.stream()
+                .filter(f -> origin == null || f.getDepartureLocation().getAirportId().equals(origin))
+                .filter(f -> f.getDepartureMinute() >= from && f.getDepartureMinute() <= to)
+                .collect(Collectors.toList());
+    }
+
+    private void save(Flight f) {
+        repository.save(f);
+        model.put(f.getId(), f);
+    }
+
+    private Flight flight(String id, int minutesFromBase) {
+        int from = random.nextInt(locations.length);
+        int to = (from + 1 + random.nextInt(locations.length - 1)) % locations.length;
+        return new Flight(id, plane, locations[from], locations[to],
+                BASE.plusMinutes(minutesFromBase), random.nextInt(6), random.nextInt(60));
+    }
+
+    private static long minute(int minutesFromBase) {
+        return Math.floorDiv(BASE.plusMinutes(minutesFromBase).toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
@@ -0,0 +1,203 @@
+package airport.storage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * {@link PersistentSortedList} contra un {@link TreeMap}: balance AVL y
+ * tamaños tras cada escritura, {@code replacing} igual que aplicar
+ * {@code without}/{@code with} uno a uno, {@code iterator(i)} igual que
+ * {@code get(i)} y versiones anteriores intactas.
+ */
+public class PersistentSortedListTest {
+
+    /** Elemento con clave de orden y etiqueta, para ver qué instancia queda. */
+    private static final class Item {
+        final int key;
+        final int tag;
+
+        Item(int key, int tag) {
+            this.key = key;
+            this.tag = tag;
+        }
+
+        @Override
+        public String toString() {
+            return key + "#" + tag;
+        }
+    }
+
+    private static final Comparator<Item> BY_KEY = Comparator.comparingInt(i -> i.key);
+
+    private final Random random = new Random(38);
+    private int tags;
+
+    @Test
+    public void withAndWithoutKeepBalanceAndSizes() {
+        PersistentSortedList<Item> list = PersistentSortedList.empty(BY_KEY);
+        TreeMap<Integer, Item> model = new TreeMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            int key = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) {
+                Item present = model.remove(key);
+                list = list.without(present != null ? present : new Item(key, -1));
+            } else {
+                Item item = item(key);
+                model.put(key, item);
+                list = list.with(item);
+            }
+            assertTrue(list.isBalanced());
+            assertEquals(model.size(), list.size());
+        }
+        assertSameItems(new ArrayList<>(model.values()), list);
+    }
+
+    @Test
+    public void sortedInsertsStayLogarithmic() {
+        PersistentSortedList<Item> list = PersistentSortedList.empty(BY_KEY);
+        for (int key = 0; key < 10_000; key++) list = list.with(item(key));
+        assertTrue(list.isBalanced());
+        for (int key = 0; key < 10_000; key += 2) list = list.without(list.get(key / 2));
+        assertTrue(list.isBalanced());
+        assertEquals(5_000, list.size());
+        assertEquals(1, list.get(0).key);
+    }
+
+    @Test
+    public void withoutMissingReturnsSameVersion() {
+        PersistentSortedList<Item> list = PersistentSortedList.<Item>empty(BY_KEY).with(item(1));
+        assertSame(list, list.without(item(2)));
+    }
+
+    @Test
+    public void withReplacesEqualElement() {
+        Item first = item(7), second = item(7);
+        PersistentSortedList<Item> list = PersistentSortedList.<Item>empty(BY_KEY).with(first).with(second);
+        assertEquals(1, list.size());
+        assertSame(second, list.get(0));
+    }
+
+    @Test
+    public void replacingSmallBatchesMatchesSequential() {
+        // few changes against a large list take the one-by-one path
+        checkReplacing(2_000, 20, 20);
+    }
+
+    @Test
+    public void replacingLargeBatchesMatchesSequential() {
+        // many changes against the list take the merge-and-rebuild path
+        checkReplacing(500, 300, 400);
+    }
+
+    @Test
+    public void replacingOnEmptyAndToEmpty() {
+        PersistentSortedList<Item> empty = PersistentSortedList.empty(BY_KEY);
+        List<Item> added = List.of(item(3), item(1), item(2));
+        PersistentSortedList<Item> filled = empty.replacing(List.of(), added);
+        assertSameItems(List.of(added.get(1), added.get(2), added.get(0)), filled);
+        PersistentSortedList<Item> cleared = filled.replacing(added, List.of());
+        assertEquals(0, cleared.size());
+        assertTrue(cleared.isBalanced());
+    }
+
+    @Test
+    public void iteratorFromIndexMatchesGet() {
+        PersistentSortedList<Item> list = randomList(777);
+        for (int i = 0; i <= list.size(); i++) {
+            Iterator<Item> it = list.iterator(i);
+            for (int j = i; j < list.size(); j++) {
+                assertTrue(it.hasNext());
+                assertSame(list.get(j), it.next());
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorPastEndThrows() {
+        PersistentSortedList<Item> list = randomList(10);
+        list.iterator(list.size()).next();
+    }
+
+    @Test
+    public void findAndRankMatchModel() {
+        PersistentSortedList<Item> list = PersistentSortedList.empty(BY_KEY);
+        TreeMap<Integer, Item> model = new TreeMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            Item item = item(2 * random.nextInt(5_000));
+            model.put(item.key, item);
+            list = list.with(item);
+        }
+        for (int key = -1; key <= 10_001; key++) {
+            int k = key;
+            assertSame(model.get(key), list.find(x -> Integer.compare(k, x.key)));
+            assertEquals(model.headMap(key).size(), list.rank(x -> k <= x.key ? -1 : 1));
+        }
+    }
+
+    @Test
+    public void oldVersionsStayUntouched() {
+        PersistentSortedList<Item> before = randomList(300);
+        List<Item> snapshot = new ArrayList<>(before);
+        PersistentSortedList<Item> after = before;
+        for (int i = 0; i < 200; i++) {
+            after = random.nextBoolean() ? after.with(item(random.nextInt(1_000)))
+                    : after.without(after.get(random.nextInt(after.size())));
+        }
+        after = after.replacing(List.of(after.get(0), after.get(1)), List.of(item(5_000)));
+        after = after.replacing(new ArrayList<>(after), List.of(item(1)));
+        assertEquals(1, after.size());
+        assertSameItems(snapshot, before);
+        assertTrue(before.isBalanced());
+    }
+
+    /** Compara {@code replacing} con aplicar los mismos cambios uno a uno. */
+    private void checkReplacing(int size, int removals, int additions) {
+        for (int round = 0; round < 30; round++) {
+            PersistentSortedList<Item> list = randomList(size);
+            List<Item> removed = new ArrayList<>();
+            for (int i = 0; i < removals; i++) {
+                Item victim = list.get(random.nextInt(list.size()));
+                if (!removed.contains(victim)) removed.add(victim);
+            }
+            List<Item> added = new ArrayList<>();
+            for (int i = 0; i < additions; i++) {
+                // reuse removed and present keys too, so replacements and repeats are covered
+                int key = random.nextInt(3) == 0 && !removed.isEmpty()
+                        ? removed.get(random.nextInt(removed.size())).key
+                        : random.nextInt(4 * size);
+                added.add(item(key));
+            }
+
+            PersistentSortedList<Item> sequential = list;
+            for (Item item : removed) sequential = sequential.without(item);
+            for (Item item : added) sequential = sequential.with(item);
+            PersistentSortedList<Item> batch = list.replacing(removed, added);
+
+            assertTrue(batch.isBalanced());
+            assertSameItems(new ArrayList<>(sequential), batch);
+        }
+    }
+
+    private PersistentSortedList<Item> randomList(int size) {
+        PersistentSortedList<Item> list = PersistentSortedList.empty(BY_KEY);
+        while (list.size() < size) list = list.with(item(random.nextInt(4 * size)));
+        return list;
+    }
+
+    private Item item(int key) {
+        return new Item(key, tags++);
+    }
+
+    private static void assertSameItems(List<Item> expected, PersistentSortedList<Item> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) assertSame(expected.get(i), actual.get(i));
+    }
+}
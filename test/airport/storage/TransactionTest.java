@@ -0,0 +1,127 @@
+package airport.storage;
+
+import airport.model.Plane;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Deshacer de {@link Transaction}: si una escritura falla en commit, las ya
+ * aplicadas se restauran y los candados quedan libres.
+ */
+public class TransactionTest {
+
+    private PlaneRepository planes;
+    private TransactionManager transactions;
+
+    @Before
+    public void setUp() {
+        planes = new PlaneRepository();
+        transactions = new TransactionManager();
+        planes.save(new Plane("P1", "Airbus", "A320", 180, "Avianca"));
+        planes.save(new Plane("P2", "Boeing", "737", 160, "LATAM"));
+    }
+
+    @Test
+    public void failedCommitRestoresEveryWrite() {
+        Plane before = planes.findById("P1").get();
+        List<Plane> snapshot = planes.view();
+        try (Transaction tx = transactions.begin("plane:P1", "plane:P2", "plane:P3")) {
+            tx.update(planes, new Plane("P1", "Airbus", "A321", 220, "Avianca"));
+            tx.delete(planes, "P2");
+            tx.save(planes, new Plane("P3", "Embraer", "E190", 100, "Copa"));
+            tx.onCommit(() -> {
+                throw new IllegalStateException("fallo");
+            });
+            tx.commit();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("fallo", expected.getMessage());
+        }
+
+        assertEquals(snapshot.size(), planes.view().size());
+        assertSame(before, planes.findById("P1").get());
+        assertEquals(1, planes.findById("P1").get().getVersion());
+        assertTrue(planes.findById("P2").isPresent());
+        assertFalse(planes.findById("P3").isPresent());
+        assertUnlocked("plane:P1", "plane:P2", "plane:P3");
+    }
+
+    @Test
+    public void undosRunInReverseOrder() {
+        List<String> log = new ArrayList<>();
+        try (Transaction tx = transactions.begin("k")) {
+            tx.onRollback(() -> log.add("rollback"));
+            tx.onCommit(() -> log.add("a"), () -> log.add("undo a"));
+            tx.onCommit(() -> log.add("b"), () -> log.add("undo b"));
+            tx.onCommit(() -> {
+                throw new IllegalStateException();
+            });
+            tx.commit();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(List.of("a", "b", "undo b", "undo a", "rollback"), log);
+    }
+
+    @Test
+    public void failingUndoIsSuppressed() {
+        try (Transaction tx = transactions.begin("k")) {
+            tx.onCommit(() -> { }, () -> {
+                throw new IllegalArgumentException();
+            });
+            tx.onCommit(() -> {
+                throw new IllegalStateException();
+            });
+            tx.commit();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals(1, expected.getSuppressed().length);
+            assertTrue(expected.getSuppressed()[0] instanceof IllegalArgumentException);
+        }
+        assertUnlocked("k");
+    }
+
+    @Test
+    public void abortRunsCompensationsOnly() {
+        List<String> log = new ArrayList<>();
+        try (Transaction tx = transactions.begin("k")) {
+            tx.onRollback(() -> log.add("rollback"));
+            tx.onCommit(() -> log.add("a"), () -> log.add("undo a"));
+            tx.save(planes, new Plane("P3", "Embraer", "E190", 100, "Copa"));
+        }
+        assertEquals(List.of("rollback"), log);
+        assertFalse(planes.findById("P3").isPresent());
+    }
+
+    @Test
+    public void successfulCommitForgetsCompensations() {
+        List<String> log = new ArrayList<>();
+        try (Transaction tx = transactions.begin("k")) {
+            tx.onRollback(() -> log.add("rollback"));
+            tx.update(planes, new Plane("P1", "Airbus", "A321", 220, "Avianca"));
+            tx.commit();
+        }
+        assertEquals(List.of(), log);
+        assertEquals(2, planes.findById("P1").get().getVersion());
+    }
+
+    /** Otro hilo debe poder tomar las claves si la transacción las liberó. */
+    private void assertUnlocked(String... keys) {
+        boolean[] acquired = new boolean[1];
+        Thread other = new Thread(() -> {
+            try (Transaction tx = transactions.begin(keys)) {
+                acquired[0] = true;
+            }
+        });
+        other.start();
+        try {
+            other.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertTrue(acquired[0]);
+    }
+}